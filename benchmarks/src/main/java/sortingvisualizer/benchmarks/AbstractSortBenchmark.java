@@ -0,0 +1,90 @@
+package sortingvisualizer.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sortingvisualizer.Algorithm;
+import sortingvisualizer.EventFilter;
+import sortingvisualizer.HeadlessController;
+import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.InputDistribution;
+import sortingvisualizer.RecordingController;
+import sortingvisualizer.SortController;
+
+/**
+ * Shared state and benchmark method for the sorting benchmarks. Subclasses
+ * choose which algorithms and sizes are meaningful for them.
+ *
+ * The NULL controller only counts operations, while RECORDING appends every
+ * event to a StepBuffer the way the GUI does; the difference between the two
+ * is the cost of the SortController callbacks for that algorithm. SILENT puts
+ * {@link EventFilter#OFF} in front of NULL, so the callbacks inline to
+ * nothing and the run is as close to uninstrumented as the tree gets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+// SIMD Sort picks up the Vector API kernels; the other algorithms do not use them
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class AbstractSortBenchmark {
+    public enum ControllerKind {
+        NULL, RECORDING, SILENT
+    }
+
+    @Param({ "RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "ORGAN_PIPE" })
+    public InputDistribution distribution;
+
+    @Param({ "NULL", "RECORDING", "SILENT" })
+    public ControllerKind controller;
+
+    private int[] input;
+    private int[] work;
+    private ISortingAlgorithm sorter;
+    private SortController sortController;
+
+    protected abstract Algorithm algorithm();
+
+    protected abstract int size();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int size = size();
+        input = distribution.generate(size, new Random(42));
+        work = new int[size];
+        sorter = algorithm().newInstance();
+        switch (controller) {
+            case NULL:
+                sortController = new HeadlessController();
+                break;
+            case RECORDING:
+                sortController = new RecordingController();
+                break;
+            default:
+                sortController = EventFilter.OFF.apply(new HeadlessController());
+                break;
+        }
+    }
+
+    // The copy is part of the measurement; it is linear and small next to any sort
+    @Benchmark
+    public int[] sort() throws InterruptedException {
+        System.arraycopy(input, 0, work, 0, input.length);
+        sorter.runSort(work, sortController);
+        return work;
+    }
+}
@@ -0,0 +1,157 @@
+package sortingvisualizer.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sortingvisualizer.ScalarSortKernels;
+import sortingvisualizer.SortKernels;
+import sortingvisualizer.SortingNetwork;
+
+/**
+ * The partition, merge and column-sort kernels on random ints, per
+ * implementation: BRANCHY copies the inner loops of Quick Sort's partition
+ * and Merge Sort's merge without their controller calls, SCALAR is
+ * {@link ScalarSortKernels} and VECTOR the Vector API kernels, which fail the
+ * trial if the vector module is not on the class path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class KernelBenchmark {
+    public enum Kind {
+        BRANCHY, SCALAR, VECTOR
+    }
+
+    @Param({ "BRANCHY", "SCALAR", "VECTOR" })
+    public Kind kernels;
+
+    @Param({ "1024", "1048576" })
+    public int size;
+
+    private SortKernels kernel;
+    private int[] input;
+    private int[] runs;
+    private int[] work;
+    private int[] scratch;
+    private int[] columns;
+    private int[] columnInput;
+    private SortingNetwork network;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        kernel = select(kernels);
+        Random random = new Random(42);
+        input = random.ints(size).toArray();
+        runs = input.clone();
+        Arrays.sort(runs, 0, size / 2);
+        Arrays.sort(runs, size / 2, size);
+        work = new int[size];
+        scratch = new int[size];
+        network = SortingNetwork.forSize(SortingNetwork.MAX_SIZE);
+        columnInput = random.ints(SortingNetwork.MAX_SIZE * 64).toArray();
+        columns = new int[columnInput.length];
+    }
+
+    private static SortKernels select(Kind kind) {
+        switch (kind) {
+            case BRANCHY:
+                return new BranchyKernels();
+            case SCALAR:
+                return ScalarSortKernels.INSTANCE;
+            default:
+                for (SortKernels kernels : ServiceLoader.load(SortKernels.class)) {
+                    return kernels;
+                }
+                throw new IllegalStateException("No vector kernels; build the vector module");
+        }
+    }
+
+    // Around zero, so the pivot splits random ints in half and every branch is a coin toss
+    @Benchmark
+    public int partition() {
+        System.arraycopy(input, 0, work, 0, size);
+        return kernel.partition(work, 0, size, 0, scratch);
+    }
+
+    @Benchmark
+    public int[] merge() {
+        kernel.merge(runs, 0, size / 2, size, work);
+        return work;
+    }
+
+    // 64 arrays of 64 elements, already transposed; independent of size
+    @Benchmark
+    public int[] sortColumns() {
+        System.arraycopy(columnInput, 0, columns, 0, columns.length);
+        kernel.sortColumns(columns, 64, network);
+        return columns;
+    }
+
+    /** The loops the step-reporting algorithms run, minus their controller calls. */
+    private static final class BranchyKernels implements SortKernels {
+        @Override
+        public String getName() {
+            return "branchy";
+        }
+
+        @Override
+        public int partition(int[] array, int from, int to, int pivot, int[] scratch) {
+            int i = from - 1;
+            for (int j = from; j < to; j++) {
+                if (array[j] < pivot) {
+                    i++;
+                    int temp = array[i];
+                    array[i] = array[j];
+                    array[j] = temp;
+                }
+            }
+            return i + 1;
+        }
+
+        @Override
+        public void merge(int[] src, int lo, int mid, int hi, int[] dst) {
+            int i = lo, j = mid, k = lo;
+            while (i < mid && j < hi) {
+                if (src[i] <= src[j]) {
+                    dst[k++] = src[i++];
+                } else {
+                    dst[k++] = src[j++];
+                }
+            }
+            System.arraycopy(src, i, dst, k, mid - i);
+            System.arraycopy(src, j, dst, k + mid - i, hi - j);
+        }
+
+        @Override
+        public void sortColumns(int[] columns, int width, SortingNetwork network) {
+            for (int c = 0; c < network.getComparatorCount(); c++) {
+                int i = network.getLow(c) * width, j = network.getHigh(c) * width;
+                for (int a = 0; a < width; a++) {
+                    if (columns[i + a] > columns[j + a]) {
+                        int temp = columns[i + a];
+                        columns[i + a] = columns[j + a];
+                        columns[j + a] = temp;
+                    }
+                }
+            }
+        }
+    }
+}
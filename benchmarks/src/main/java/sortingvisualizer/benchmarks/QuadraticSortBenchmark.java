@@ -0,0 +1,27 @@
+package sortingvisualizer.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+
+import sortingvisualizer.Algorithm;
+
+/**
+ * The O(n^2) algorithms. Sizes stop at 1e5, where a single sort already takes
+ * seconds; larger inputs would not finish in a reasonable benchmark run.
+ */
+public class QuadraticSortBenchmark extends AbstractSortBenchmark {
+    @Param({ "BUBBLE_SORT", "SELECTION_SORT", "INSERTION_SORT" })
+    public Algorithm algorithm;
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    @Override
+    protected Algorithm algorithm() {
+        return algorithm;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
@@ -0,0 +1,26 @@
+package sortingvisualizer.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+
+import sortingvisualizer.Algorithm;
+
+/**
+ * Quick Sort on its own. Its last-element pivot recurses n deep on sorted,
+ * reversed and organ-pipe input, and about n/8 deep on few-unique input, so
+ * every shape is measured only up to 1e4 elements. Random input scales like
+ * the other O(n log n) sorts: {@code -p distribution=RANDOM -p size=1000000}.
+ */
+public class QuickSortBenchmark extends AbstractSortBenchmark {
+    @Param({ "1000", "10000" })
+    public int size;
+
+    @Override
+    protected Algorithm algorithm() {
+        return Algorithm.QUICK_SORT;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
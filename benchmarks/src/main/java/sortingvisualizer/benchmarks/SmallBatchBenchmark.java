@@ -0,0 +1,98 @@
+package sortingvisualizer.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sortingvisualizer.Algorithm;
+import sortingvisualizer.HeadlessController;
+import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.SortingNetwork;
+
+/**
+ * Sorting many tiny arrays: 4096 arrays of 8 to 64 random ints each, through
+ * an algorithm and a counting controller one array at a time, through a
+ * sorting network one array at a time, and through the network's batch API.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SmallBatchBenchmark {
+    private static final int ARRAYS = 4096;
+
+    @Param({ "8", "16", "32", "64" })
+    public int size;
+
+    private int[] input;
+    private int[] work;
+    private int[] one;
+    private SortingNetwork network;
+    private ISortingAlgorithm insertionSort;
+    private ISortingAlgorithm bitonicSort;
+    private HeadlessController controller;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        input = new int[ARRAYS * size];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = random.nextInt();
+        }
+        work = new int[input.length];
+        one = new int[size];
+        network = SortingNetwork.forSize(size);
+        insertionSort = Algorithm.INSERTION_SORT.newInstance();
+        bitonicSort = Algorithm.BITONIC_SORT.newInstance();
+        controller = new HeadlessController();
+    }
+
+    @Benchmark
+    public int[] insertionSort() throws InterruptedException {
+        return sortEach(insertionSort);
+    }
+
+    @Benchmark
+    public int[] bitonicSort() throws InterruptedException {
+        return sortEach(bitonicSort);
+    }
+
+    @Benchmark
+    public int[] network() {
+        System.arraycopy(input, 0, work, 0, input.length);
+        for (int a = 0; a < ARRAYS; a++) {
+            network.sort(work, a * size);
+        }
+        return work;
+    }
+
+    @Benchmark
+    public int[] networkBatch() {
+        System.arraycopy(input, 0, work, 0, input.length);
+        network.sortBatch(work, 0, ARRAYS);
+        return work;
+    }
+
+    private int[] sortEach(ISortingAlgorithm sorter) throws InterruptedException {
+        for (int a = 0; a < ARRAYS; a++) {
+            System.arraycopy(input, a * size, one, 0, size);
+            sorter.runSort(one, controller);
+            System.arraycopy(one, 0, work, a * size, size);
+        }
+        return work;
+    }
+}
@@ -0,0 +1,31 @@
+package sortingvisualizer.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+
+import sortingvisualizer.Algorithm;
+
+/**
+ * The O(n log n) and linear-time algorithms, measured from 1e3 up to 1e7 elements.
+ * Quick Sort degenerates on most of the shapes at these sizes and has its own
+ * {@link QuickSortBenchmark}.
+ */
+public class SortBenchmark extends AbstractSortBenchmark {
+    @Param({ "MERGE_SORT", "COUNTING_SORT", "RADIX_SORT", "HEAP_SORT",
+            "PARALLEL_MERGE_SORT", "PARALLEL_QUICK_SORT", "PDQ_SORT", "TIM_SORT", "LSD_RADIX_SORT",
+            "PARALLEL_RADIX_SORT", "AMERICAN_FLAG_SORT", "SIMD_SORT",
+            "BLOCK_QUICK_SORT" })
+    public Algorithm algorithm;
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int size;
+
+    @Override
+    protected Algorithm algorithm() {
+        return algorithm;
+    }
+
+    @Override
+    protected int size() {
+        return size;
+    }
+}
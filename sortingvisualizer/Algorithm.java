@@ -1,23 +1,68 @@
 package sortingvisualizer;
 
+import java.util.function.Supplier;
+
+import sortingvisualizer.algorithms.AmericanFlagSort;
+import sortingvisualizer.algorithms.BitonicSort;
+import sortingvisualizer.algorithms.BlockQuickSort;
+import sortingvisualizer.algorithms.BubbleSort;
+import sortingvisualizer.algorithms.CountingSort;
+import sortingvisualizer.algorithms.HeapSort;
+import sortingvisualizer.algorithms.InsertionSort;
+import sortingvisualizer.algorithms.LsdRadixSort;
+import sortingvisualizer.algorithms.MergeSort;
+import sortingvisualizer.algorithms.ParallelMergeSort;
+import sortingvisualizer.algorithms.ParallelQuickSort;
+import sortingvisualizer.algorithms.ParallelRadixSort;
+import sortingvisualizer.algorithms.PdqSort;
+import sortingvisualizer.algorithms.QuickSort;
+import sortingvisualizer.algorithms.RadixSort;
+import sortingvisualizer.algorithms.SelectionSort;
+import sortingvisualizer.algorithms.SimdSort;
+import sortingvisualizer.algorithms.TimSort;
+
+/**
+ * The built-in algorithms, by stable id. {@link AlgorithmRegistry} lists
+ * these first and adds any plugins found on the class path.
+ */
 public enum Algorithm {
-    BUBBLE_SORT("Bubble Sort"),
-    SELECTION_SORT("Selection Sort"),
-    INSERTION_SORT("Insertion Sort"),
-    MERGE_SORT("Merge Sort"),
-    QUICK_SORT("Quick Sort"),
-    COUNTING_SORT("Counting Sort"),
-    RADIX_SORT("Radix Sort"),
-    HEAP_SORT("Heap Sort");
-
-    private final String displayName;
-
-    Algorithm(String displayName) {
-        this.displayName = displayName;
+    BUBBLE_SORT(BubbleSort::new),
+    SELECTION_SORT(SelectionSort::new),
+    INSERTION_SORT(InsertionSort::new),
+    MERGE_SORT(MergeSort::new),
+    QUICK_SORT(QuickSort::new),
+    COUNTING_SORT(CountingSort::new),
+    RADIX_SORT(RadixSort::new),
+    HEAP_SORT(HeapSort::new),
+    PARALLEL_MERGE_SORT(ParallelMergeSort::new),
+    PARALLEL_QUICK_SORT(ParallelQuickSort::new),
+    PDQ_SORT(PdqSort::new),
+    TIM_SORT(TimSort::new),
+    LSD_RADIX_SORT(LsdRadixSort::new),
+    PARALLEL_RADIX_SORT(ParallelRadixSort::new),
+    AMERICAN_FLAG_SORT(AmericanFlagSort::new),
+    BITONIC_SORT(BitonicSort::new),
+    SIMD_SORT(SimdSort::new),
+    BLOCK_QUICK_SORT(BlockQuickSort::new);
+
+    private final Supplier<ISortingAlgorithm> factory;
+
+    Algorithm(Supplier<ISortingAlgorithm> factory) {
+        this.factory = factory;
+    }
+
+    // Creates a fresh instance so runs never share algorithm state
+    public ISortingAlgorithm newInstance() {
+        return factory.get();
+    }
+
+    // Name and metadata come from the algorithm itself
+    public AlgorithmRegistry.Entry entry() {
+        return AlgorithmRegistry.getDefault().get(this);
     }
 
     @Override
     public String toString() {
-        return displayName;
+        return entry().getName();
     }
 }
\ No newline at end of file
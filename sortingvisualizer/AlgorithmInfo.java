@@ -0,0 +1,67 @@
+package sortingvisualizer;
+
+/**
+ * What an algorithm promises: whether equal keys keep their order, whether
+ * it sorts without a second array, whether it uses more than one thread, and
+ * its expected time, worst-case time and extra memory as display strings.
+ */
+public final class AlgorithmInfo {
+    public static final AlgorithmInfo UNKNOWN = new AlgorithmInfo(false, false, false, "?", "?");
+
+    private final boolean stable;
+    private final boolean inPlace;
+    private final boolean parallel;
+    private final String timeComplexity;
+    private final String worstCaseTime;
+    private final String memory;
+
+    // For algorithms whose worst case is their expected time
+    public AlgorithmInfo(boolean stable, boolean inPlace, boolean parallel, String timeComplexity, String memory) {
+        this(stable, inPlace, parallel, timeComplexity, timeComplexity, memory);
+    }
+
+    public AlgorithmInfo(boolean stable, boolean inPlace, boolean parallel, String timeComplexity,
+            String worstCaseTime, String memory) {
+        this.stable = stable;
+        this.inPlace = inPlace;
+        this.parallel = parallel;
+        this.timeComplexity = timeComplexity;
+        this.worstCaseTime = worstCaseTime;
+        this.memory = memory;
+    }
+
+    public boolean isStable() {
+        return stable;
+    }
+
+    public boolean isInPlace() {
+        return inPlace;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    // Expected (average-case) time, e.g. "O(n log n)"
+    public String getTimeComplexity() {
+        return timeComplexity;
+    }
+
+    // Time on the input that is worst for the algorithm, e.g. "O(n^2)" for a naive quicksort on sorted input
+    public String getWorstCaseTime() {
+        return worstCaseTime;
+    }
+
+    // Extra memory beyond the input array, e.g. "O(1)"
+    public String getMemory() {
+        return memory;
+    }
+
+    @Override
+    public String toString() {
+        return (stable ? "stable" : "unstable") + ", " + (inPlace ? "in-place" : "out-of-place")
+                + (parallel ? ", parallel" : "") + ", " + timeComplexity + " time"
+                + (worstCaseTime.equals(timeComplexity) ? "" : " (" + worstCaseTime + " worst case)") + ", " + memory
+                + " extra memory";
+    }
+}
@@ -0,0 +1,200 @@
+package sortingvisualizer;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Every algorithm the application can run: the built-in {@link Algorithm}s
+ * followed by any {@link ISortingAlgorithm} implementations discovered with
+ * {@link ServiceLoader}.
+ *
+ * A plugin is a jar that lists its classes in
+ * {@code META-INF/services/sortingvisualizer.ISortingAlgorithm}. It is picked
+ * up from the class path, or from the jars in the {@value #PLUGIN_DIR_PROPERTY}
+ * directory (default {@value #DEFAULT_PLUGIN_DIR}). Each algorithm needs a
+ * public no-argument constructor; its display name and {@link AlgorithmInfo}
+ * come from the algorithm itself.
+ *
+ * Lookups are cached: the class path is scanned once, and each entry keeps
+ * one instance for its name and metadata. Runs still get a fresh instance
+ * from {@link Entry#newInstance()}, since several algorithms keep scratch
+ * state between calls.
+ */
+public final class AlgorithmRegistry {
+    public static final String PLUGIN_DIR_PROPERTY = "sortingvisualizer.plugins";
+    public static final String DEFAULT_PLUGIN_DIR = "plugins";
+
+    // Far more broken provider entries than any plugin directory holds
+    private static final int MAX_CONSECUTIVE_PLUGIN_ERRORS = 1000;
+
+    /** One algorithm in the registry. */
+    public static final class Entry {
+        private final String id;
+        private final Supplier<? extends ISortingAlgorithm> factory;
+        private final ISortingAlgorithm prototype;
+        private final boolean builtIn;
+
+        Entry(String id, Supplier<? extends ISortingAlgorithm> factory, ISortingAlgorithm prototype,
+                boolean builtIn) {
+            this.id = id;
+            this.factory = factory;
+            this.prototype = prototype;
+            this.builtIn = builtIn;
+        }
+
+        // Upper-case name used on the command line, e.g. PDQ_SORT
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return prototype.getName();
+        }
+
+        public AlgorithmInfo getInfo() {
+            return prototype.getInfo();
+        }
+
+        public boolean isBuiltIn() {
+            return builtIn;
+        }
+
+        // Creates a fresh instance so runs never share algorithm state
+        public ISortingAlgorithm newInstance() {
+            return factory.get();
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+
+    private static volatile AlgorithmRegistry defaultRegistry;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private AlgorithmRegistry() {
+    }
+
+    // The registry for the class path and plugin directory, loaded on first use
+    public static AlgorithmRegistry getDefault() {
+        AlgorithmRegistry registry = defaultRegistry;
+        if (registry == null) {
+            synchronized (AlgorithmRegistry.class) {
+                registry = defaultRegistry;
+                if (registry == null) {
+                    registry = load(pluginClassLoader());
+                    defaultRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    public static AlgorithmRegistry load(ClassLoader loader) {
+        AlgorithmRegistry registry = new AlgorithmRegistry();
+        Set<Class<?>> builtInTypes = new HashSet<>();
+        for (Algorithm algorithm : Algorithm.values()) {
+            ISortingAlgorithm prototype = algorithm.newInstance();
+            builtInTypes.add(prototype.getClass());
+            registry.entries.put(algorithm.name(), new Entry(algorithm.name(), algorithm::newInstance, prototype, true));
+        }
+
+        Iterator<ServiceLoader.Provider<ISortingAlgorithm>> providers = ServiceLoader
+                .load(ISortingAlgorithm.class, loader).stream().iterator();
+        int failures = 0;
+        while (true) {
+            ServiceLoader.Provider<ISortingAlgorithm> provider;
+            try {
+                if (!providers.hasNext())
+                    break;
+                provider = providers.next();
+                failures = 0;
+            } catch (ServiceConfigurationError e) {
+                // The iterator moves past a provider class it cannot load; the bound only stops one that is stuck
+                if (++failures > MAX_CONSECUTIVE_PLUGIN_ERRORS) {
+                    System.err.println("Skipping remaining algorithm plugins after " + MAX_CONSECUTIVE_PLUGIN_ERRORS
+                            + " errors in a row: " + e.getMessage());
+                    break;
+                }
+                System.err.println("Skipping algorithm plugin: " + e.getMessage());
+                continue;
+            }
+            if (builtInTypes.contains(provider.type()))
+                continue;
+            ISortingAlgorithm prototype;
+            try {
+                prototype = provider.get();
+            } catch (ServiceConfigurationError e) {
+                // A broken plugin must not take the built-in algorithms or the other plugins down with it
+                System.err.println("Skipping algorithm plugin " + provider.type().getName() + ": " + e.getMessage());
+                continue;
+            }
+            String id = idFor(prototype.getName());
+            if (registry.entries.containsKey(id)) {
+                System.err.println("Skipping algorithm plugin " + provider.type().getName() + ": " + id
+                        + " is already registered");
+                continue;
+            }
+            registry.entries.put(id, new Entry(id, provider::get, prototype, false));
+        }
+        return registry;
+    }
+
+    // "LSD Radix Sort" -> LSD_RADIX_SORT, matching the built-in enum names
+    static String idFor(String name) {
+        return name.trim().toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]+", "_").replaceAll("^_|_$", "");
+    }
+
+    private static ClassLoader pluginClassLoader() {
+        ClassLoader parent = Thread.currentThread().getContextClassLoader();
+        if (parent == null) {
+            parent = AlgorithmRegistry.class.getClassLoader();
+        }
+        File[] jars = new File(System.getProperty(PLUGIN_DIR_PROPERTY, DEFAULT_PLUGIN_DIR))
+                .listFiles((dir, name) -> name.endsWith(".jar"));
+        if (jars == null || jars.length == 0)
+            return parent;
+        List<URL> urls = new ArrayList<>();
+        for (File jar : jars) {
+            try {
+                urls.add(jar.toURI().toURL());
+            } catch (MalformedURLException e) {
+                System.err.println("Skipping algorithm plugin " + jar + ": " + e.getMessage());
+            }
+        }
+        return new URLClassLoader(urls.toArray(new URL[0]), parent);
+    }
+
+    public List<Entry> getAlgorithms() {
+        return Collections.unmodifiableList(new ArrayList<>(entries.values()));
+    }
+
+    public Entry get(Algorithm algorithm) {
+        return entries.get(algorithm.name());
+    }
+
+    // Accepts an id (PDQ_SORT, pdq-sort) or a display name (PDQ Sort)
+    public Entry find(String name) {
+        Entry entry = entries.get(idFor(name));
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown algorithm: " + name);
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,274 @@
+package sortingvisualizer;
+
+import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Draws the array bars into an off-screen image and keeps that image up to
+ * date by redrawing only the columns that changed since the last paint.
+ *
+ * When the array has no more elements than the panel has pixels, each
+ * element gets its own bar. Otherwise each pixel column stands for a bucket
+ * of consecutive elements and shows its minimum (solid), the spread up to
+ * its maximum (dimmed) and its mean (a bright tick). Column sums are kept
+ * exact on every write and min/max are only rescanned when a write removes
+ * the current extreme, so arrays of tens of millions of elements cost
+ * O(changed columns) per paint. The array maximum is cached rather than
+ * rescanned.
+ */
+public class BarRenderer {
+
+    /** Supplies the colors for single bars and for aggregated buckets. */
+    public interface ColorModel {
+        Color barColor(int index);
+
+        // Color for elements from (inclusive) to to (exclusive)
+        Color bucketColor(int from, int to);
+    }
+
+    private static final Color MEAN_COLOR = new Color(255, 255, 255, 200);
+
+    private final ColorModel colors;
+    private final Map<Color, Color> dimColors = new IdentityHashMap<>();
+
+    private int[] array;
+    private int maxVal = 1;
+
+    private BufferedImage image;
+    private int columns;
+    private int barWidth;
+    private boolean aggregated;
+
+    // Per-column bucket statistics, only maintained in aggregated mode
+    private int[] columnMin = new int[0];
+    private int[] columnMax = new int[0];
+    private long[] columnSum = new long[0];
+    private boolean[] statsStale = new boolean[0];
+
+    // Columns waiting to be redrawn, kept as a list so a frame never scans all columns
+    private boolean[] dirty = new boolean[0];
+    private int[] dirtyList = new int[0];
+    private int dirtyCount;
+    private boolean fullRedraw = true;
+
+    public BarRenderer(ColorModel colors) {
+        this.colors = colors;
+    }
+
+    public void setArray(int[] array) {
+        this.array = array;
+        maxVal = 1;
+        if (array != null) {
+            for (int val : array) {
+                if (val > maxVal)
+                    maxVal = val;
+            }
+        }
+        markAllDirty();
+    }
+
+    // Must be called after array[index] has been changed from oldValue to newValue
+    public void valueChanged(int index, int oldValue, int newValue) {
+        if (newValue > maxVal) {
+            // Every bar is scaled against the maximum, so all heights change
+            maxVal = newValue;
+            markAllDirty();
+            return;
+        }
+        if (fullRedraw || array == null || index < 0 || index >= array.length || columns == 0)
+            return;
+        int c = columnOf(index);
+        addDirty(c);
+        if (aggregated && !statsStale[c]) {
+            columnSum[c] += (long) newValue - oldValue;
+            if ((oldValue == columnMin[c] && newValue > oldValue)
+                    || (oldValue == columnMax[c] && newValue < oldValue)) {
+                // The extreme may have been the only one of its kind; rescan when drawn
+                statsStale[c] = true;
+            } else {
+                columnMin[c] = Math.min(columnMin[c], newValue);
+                columnMax[c] = Math.max(columnMax[c], newValue);
+            }
+        }
+    }
+
+    public void markAllDirty() {
+        fullRedraw = true;
+    }
+
+    public void markDirty(int index) {
+        if (fullRedraw || array == null || index < 0 || index >= array.length || columns == 0)
+            return;
+        addDirty(columnOf(index));
+    }
+
+    // Marks the inclusive index range start..end
+    public void markDirty(int start, int end) {
+        if (fullRedraw || array == null || columns == 0 || start < 0 || end < start)
+            return;
+        int last = Math.min(end, array.length - 1);
+        if (start > last)
+            return;
+        int first = columnOf(start);
+        int lastColumn = columnOf(last);
+        for (int c = first; c <= lastColumn; c++) {
+            addDirty(c);
+        }
+    }
+
+    private void addDirty(int column) {
+        if (!dirty[column]) {
+            dirty[column] = true;
+            dirtyList[dirtyCount++] = column;
+        }
+    }
+
+    private int columnOf(int index) {
+        return aggregated ? (int) ((long) index * columns / array.length) : index;
+    }
+
+    // Rounded up so that bucketStart(columnOf(i)) <= i < bucketStart(columnOf(i) + 1)
+    private int bucketStart(int column) {
+        return (int) (((long) column * array.length + columns - 1) / columns);
+    }
+
+    public void paint(Graphics2D g, int width, int height, Color background, GraphicsConfiguration gc) {
+        if (width <= 0 || height <= 0 || array == null)
+            return;
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            image = gc != null ? gc.createCompatibleImage(width, height, Transparency.OPAQUE)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            fullRedraw = true;
+        }
+
+        Graphics2D ig = image.createGraphics();
+        try {
+            ig.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            if (fullRedraw) {
+                layout(width);
+                ig.setColor(background);
+                ig.fillRect(0, 0, width, height);
+                for (int c = 0; c < columns; c++) {
+                    drawColumn(ig, c, height, background);
+                }
+                fullRedraw = false;
+            } else {
+                for (int i = 0; i < dirtyCount; i++) {
+                    int c = dirtyList[i];
+                    dirty[c] = false;
+                    drawColumn(ig, c, height, background);
+                }
+            }
+            dirtyCount = 0;
+        } finally {
+            ig.dispose();
+        }
+        g.drawImage(image, 0, 0, null);
+    }
+
+    private void layout(int width) {
+        int n = array.length;
+        aggregated = n > width;
+        columns = aggregated ? width : n;
+        barWidth = aggregated ? 1 : Math.max(1, width / Math.max(1, n));
+        if (dirty.length != columns) {
+            dirty = new boolean[columns];
+            dirtyList = new int[columns];
+        } else {
+            // Columns queued before the full redraw would otherwise keep their flag and never be queued again
+            for (int i = 0; i < dirtyCount; i++) {
+                dirty[dirtyList[i]] = false;
+            }
+        }
+        dirtyCount = 0;
+        if (aggregated && columnMin.length != columns) {
+            columnMin = new int[columns];
+            columnMax = new int[columns];
+            columnSum = new long[columns];
+            statsStale = new boolean[columns];
+        }
+        if (aggregated) {
+            Arrays.fill(statsStale, true);
+        }
+    }
+
+    private void computeStats(int column) {
+        int from = bucketStart(column);
+        int to = bucketStart(column + 1);
+        int min = array[from];
+        int max = array[from];
+        long sum = array[from];
+        for (int i = from + 1; i < to; i++) {
+            int v = array[i];
+            if (v < min)
+                min = v;
+            if (v > max)
+                max = v;
+            sum += v;
+        }
+        columnMin[column] = min;
+        columnMax[column] = max;
+        columnSum[column] = sum;
+        statsStale[column] = false;
+    }
+
+    private Color dim(Color color) {
+        return dimColors.computeIfAbsent(color,
+                c -> new Color(c.getRed() / 2, c.getGreen() / 2, c.getBlue() / 2));
+    }
+
+    private int heightOf(int value, int panelHeight) {
+        return (int) (((double) value / maxVal) * (panelHeight * 0.9));
+    }
+
+    private void drawColumn(Graphics2D g, int column, int panelHeight, Color background) {
+        int x = column * barWidth;
+        g.setColor(background);
+        g.fillRect(x, 0, barWidth, panelHeight);
+
+        if (aggregated) {
+            if (statsStale[column]) {
+                computeStats(column);
+            }
+            int from = bucketStart(column);
+            int to = bucketStart(column + 1);
+            int minHeight = heightOf(columnMin[column], panelHeight);
+            int maxHeight = heightOf(columnMax[column], panelHeight);
+            int meanHeight = heightOf((int) (columnSum[column] / (to - from)), panelHeight);
+            Color color = colors.bucketColor(from, to);
+            g.setColor(dim(color));
+            g.fillRect(x, panelHeight - maxHeight, 1, maxHeight - minHeight);
+            g.setColor(color);
+            g.fillRect(x, panelHeight - minHeight, 1, minHeight);
+            if (maxHeight > minHeight) {
+                g.setColor(MEAN_COLOR);
+                g.fillRect(x, panelHeight - meanHeight - 1, 1, 2);
+            }
+            return;
+        }
+
+        int barHeight = heightOf(array[column], panelHeight);
+        int y = panelHeight - barHeight;
+        g.setColor(colors.barColor(column));
+        g.fillRect(x, y, Math.max(1, barWidth - 1), barHeight);
+
+        if (barWidth > 25 && barHeight > 15 && array[column] > 0) { // Only draw if it fits and positive
+            g.setColor(Color.BLACK);
+            String valStr = String.valueOf(array[column]);
+            FontMetrics fm = g.getFontMetrics();
+            int stringX = x + (barWidth - 1 - fm.stringWidth(valStr)) / 2;
+            int stringY = y + fm.getAscent() + 2; // +2 for slight top margin
+            if (barHeight > fm.getHeight()) {
+                g.drawString(valStr, stringX, stringY);
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package sortingvisualizer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Races several algorithms side by side on copies of the same input.
+ *
+ * Each selected algorithm gets its own worker thread, {@link SortPanel} and
+ * {@link LiveSortController}, so the runs never share state. One
+ * {@link FrameScheduler} drives all panels, so every lane is painted at the
+ * same moments and their progress can be compared frame by frame.
+ */
+public class ComparisonWindow extends JFrame {
+    private static final long serialVersionUID = 1L;
+
+    private final int[] input;
+    private final EventFilter events;
+    private final FrameScheduler frameScheduler = new FrameScheduler(this::renderFrame);
+
+    // SwingWorker's shared pool caps at ten threads; every lane needs its own to race fairly
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "sort-race");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Lane> lanes = new ArrayList<>();
+
+    private JList<AlgorithmRegistry.Entry> algorithmList;
+    private JButton startButton, stopButton;
+    private JSlider speedSlider;
+    private JPanel lanePanel;
+    private volatile double stepsPerSecond;
+    private int finished;
+
+    /** One racing algorithm: its worker, controller, panel and labels. */
+    private final class Lane {
+        final AlgorithmRegistry.Entry algorithm;
+        final SortPanel sortPanel = new SortPanel();
+        final LiveSortController controller = new LiveSortController(() -> stepsPerSecond);
+        final JLabel statsLabel = new JLabel();
+        SwingWorker<Long, Void> worker;
+        String result = "Running...";
+
+        Lane(AlgorithmRegistry.Entry algorithm) {
+            this.algorithm = algorithm;
+            sortPanel.setPreferredSize(new Dimension(400, 200));
+            sortPanel.setArray(Arrays.copyOf(input, input.length));
+            statsLabel.setForeground(Color.WHITE);
+        }
+
+        JPanel createPanel() {
+            JPanel panel = new JPanel(new BorderLayout());
+            panel.setBackground(new Color(30, 30, 30));
+            panel.setBorder(BorderFactory.createLineBorder(new Color(60, 60, 60)));
+            JLabel title = new JLabel(algorithm.toString(), SwingConstants.CENTER);
+            title.setForeground(Color.WHITE);
+            panel.add(title, BorderLayout.NORTH);
+            panel.add(sortPanel, BorderLayout.CENTER);
+            panel.add(statsLabel, BorderLayout.SOUTH);
+            return panel;
+        }
+
+        void start() {
+            final int[] arrayToSort = Arrays.copyOf(input, input.length);
+            worker = new SwingWorker<>() {
+                @Override
+                protected Long doInBackground() throws Exception {
+                    long start = System.nanoTime();
+                    algorithm.newInstance().runSort(arrayToSort, events.apply(controller));
+                    return System.nanoTime() - start;
+                }
+
+                @Override
+                protected void done() {
+                    renderLane(Lane.this);
+                    if (isCancelled() || controller.isCancelled()) {
+                        result = "Stopped";
+                    } else {
+                        try {
+                            result = String.format("#%d in %.1f ms", ++finished, get() / 1e6);
+                        } catch (Exception e) {
+                            result = "Failed: " + e.getCause();
+                        }
+                    }
+                    updateStats(Lane.this);
+                    if (lanes.stream().allMatch(lane -> lane.worker.isDone())) {
+                        frameScheduler.stop();
+                        setControlsEnabled(true);
+                    }
+                }
+            };
+            executor.execute(worker);
+        }
+
+        void stop() {
+            if (worker != null && !worker.isDone()) {
+                controller.cancel();
+                worker.cancel(true);
+            }
+        }
+    }
+
+    // events must keep array changes; see EventFilter#keepsArrayChanges()
+    public ComparisonWindow(int[] input, EventFilter events) {
+        this.input = input.clone();
+        this.events = events;
+        setTitle("Compare Algorithms (" + input.length + " elements)");
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        lanePanel = new JPanel();
+        lanePanel.setBackground(new Color(30, 30, 30));
+        add(lanePanel, BorderLayout.CENTER);
+        add(createControlPanel(), BorderLayout.SOUTH);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                stopRace();
+                frameScheduler.stop();
+                executor.shutdown();
+            }
+        });
+
+        pack();
+        setMinimumSize(new Dimension(900, 600));
+        setLocationRelativeTo(null);
+        setVisible(true);
+    }
+
+    private JPanel createControlPanel() {
+        JPanel controlPanel = new JPanel(new GridBagLayout());
+        controlPanel.setBackground(new Color(30, 30, 30)); // Dark Gray
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.gridwidth = 1;
+        gbc.gridheight = 2;
+        algorithmList = new JList<>(
+                AlgorithmRegistry.getDefault().getAlgorithms().toArray(new AlgorithmRegistry.Entry[0])) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public String getToolTipText(MouseEvent event) {
+                int index = locationToIndex(event.getPoint());
+                return index < 0 ? null : getModel().getElementAt(index).getInfo().toString();
+            }
+        };
+        ToolTipManager.sharedInstance().registerComponent(algorithmList);
+        algorithmList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        algorithmList.setVisibleRowCount(5);
+        // The registry lists the built-ins first, in enum order
+        algorithmList.setSelectedIndices(new int[] { Algorithm.MERGE_SORT.ordinal(), Algorithm.QUICK_SORT.ordinal(),
+                Algorithm.HEAP_SORT.ordinal() });
+        controlPanel.add(new JScrollPane(algorithmList), gbc);
+
+        gbc.gridx = 1;
+        gbc.gridy = 0;
+        gbc.gridwidth = 1;
+        gbc.gridheight = 1;
+        JLabel speedLabel = new JLabel("Speed:");
+        speedLabel.setForeground(Color.WHITE);
+        controlPanel.add(speedLabel, gbc);
+
+        gbc.gridx = 2;
+        gbc.gridy = 0;
+        gbc.gridwidth = 2;
+        speedSlider = new JSlider(0, 200, 50);
+        speedSlider.setBackground(new Color(30, 30, 30));
+        speedSlider.setMajorTickSpacing(50);
+        speedSlider.setPaintTicks(true);
+        Runnable updateSpeed = () -> {
+            stepsPerSecond = StepPacer.rateForSlider(speedSlider.getValue(), speedSlider.getMaximum());
+            speedLabel.setText("Speed: " + StepPacer.describe(stepsPerSecond));
+        };
+        speedSlider.addChangeListener(e -> updateSpeed.run());
+        controlPanel.add(speedSlider, gbc);
+        updateSpeed.run();
+
+        gbc.gridx = 1;
+        gbc.gridy = 1;
+        gbc.gridwidth = 2;
+        startButton = new JButton("Start Race");
+        startButton.setBackground(new Color(46, 204, 113)); // Green
+        startButton.setForeground(Color.WHITE);
+        startButton.setFocusPainted(false);
+        startButton.addActionListener(e -> startRace());
+        controlPanel.add(startButton, gbc);
+
+        gbc.gridx = 3;
+        gbc.gridy = 1;
+        gbc.gridwidth = 1;
+        stopButton = new JButton("Stop");
+        stopButton.setBackground(new Color(231, 76, 60)); // Red
+        stopButton.setForeground(Color.WHITE);
+        stopButton.setFocusPainted(false);
+        stopButton.setEnabled(false);
+        stopButton.addActionListener(e -> stopRace());
+        controlPanel.add(stopButton, gbc);
+
+        return controlPanel;
+    }
+
+    private void startRace() {
+        List<AlgorithmRegistry.Entry> selected = algorithmList.getSelectedValuesList();
+        if (selected.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Select at least one algorithm.", "Info",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        lanes.clear();
+        lanePanel.removeAll();
+        int columns = (int) Math.ceil(Math.sqrt(selected.size()));
+        int rows = (selected.size() + columns - 1) / columns;
+        lanePanel.setLayout(new GridLayout(rows, columns, 4, 4));
+        for (AlgorithmRegistry.Entry algorithm : selected) {
+            Lane lane = new Lane(algorithm);
+            lanes.add(lane);
+            lanePanel.add(lane.createPanel());
+            updateStats(lane);
+        }
+        lanePanel.revalidate();
+        lanePanel.repaint();
+
+        finished = 0;
+        setControlsEnabled(false);
+        frameScheduler.start();
+        // Start every worker before the first frame so no lane gets a head start on screen
+        for (Lane lane : lanes) {
+            lane.start();
+        }
+    }
+
+    private void stopRace() {
+        for (Lane lane : lanes) {
+            lane.stop();
+        }
+    }
+
+    private void setControlsEnabled(boolean enabled) {
+        startButton.setEnabled(enabled);
+        algorithmList.setEnabled(enabled);
+        stopButton.setEnabled(!enabled);
+    }
+
+    // One tick for all lanes, so every panel shows the same moment of the race
+    private void renderFrame() {
+        for (Lane lane : lanes) {
+            renderLane(lane);
+        }
+    }
+
+    private void renderLane(Lane lane) {
+        if (lane.controller.isCancelled()) {
+            lane.controller.discardSteps();
+        } else {
+            lane.sortPanel.processSteps(lane.controller.takeSteps());
+        }
+        updateStats(lane);
+    }
+
+    private void updateStats(Lane lane) {
+        lane.statsLabel.setText(String.format("  Comparisons: %,d   Swaps: %,d   %s",
+                lane.controller.getComparisons(), lane.controller.getSwaps(), lane.result));
+    }
+}
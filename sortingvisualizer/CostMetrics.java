@@ -0,0 +1,188 @@
+package sortingvisualizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Snapshot of what a run cost, phase by phase, as collected by
+ * {@link MetricsController}. Exports as CSV or JSON.
+ */
+public final class CostMetrics {
+
+    /** Costs of one phase; allocatedBytes is -1 when the JVM cannot measure it. */
+    public static final class Phase {
+        private final String name;
+        private final long nanos;
+        private final long comparisons;
+        private final long swaps;
+        private final long writes;
+        private final long accesses;
+        private final long distance;
+        private final long farAccesses;
+        private final long allocatedBytes;
+
+        public Phase(String name, long nanos, long comparisons, long swaps, long writes, long accesses,
+                long distance, long farAccesses, long allocatedBytes) {
+            this.name = name;
+            this.nanos = nanos;
+            this.comparisons = comparisons;
+            this.swaps = swaps;
+            this.writes = writes;
+            this.accesses = accesses;
+            this.distance = distance;
+            this.farAccesses = farAccesses;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getComparisons() {
+            return comparisons;
+        }
+
+        public long getSwaps() {
+            return swaps;
+        }
+
+        // Array elements written: one per setValue, two per swap
+        public long getWrites() {
+            return writes;
+        }
+
+        // Indices touched by compares, swaps and writes
+        public long getAccesses() {
+            return accesses;
+        }
+
+        // Sum of index jumps between consecutive accesses
+        public long getDistance() {
+            return distance;
+        }
+
+        // Accesses that jumped further than a cache line from the previous one
+        public long getFarAccesses() {
+            return farAccesses;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public double getMeanDistance() {
+            return accesses == 0 ? 0 : (double) distance / accesses;
+        }
+
+        // Compares, swaps and writes per second of wall time
+        public double getOpsPerSecond() {
+            return nanos == 0 ? 0 : (comparisons + swaps + writes) * 1e9 / nanos;
+        }
+    }
+
+    private final String algorithm;
+    private final int size;
+    private final List<Phase> phases;
+
+    public CostMetrics(String algorithm, int size, List<Phase> phases) {
+        this.algorithm = algorithm;
+        this.size = size;
+        this.phases = Collections.unmodifiableList(new ArrayList<>(phases));
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public List<Phase> getPhases() {
+        return phases;
+    }
+
+    // Sum over every phase
+    public Phase total() {
+        long nanos = 0, comparisons = 0, swaps = 0, writes = 0, accesses = 0, distance = 0, far = 0;
+        long allocated = 0;
+        for (Phase p : phases) {
+            nanos += p.nanos;
+            comparisons += p.comparisons;
+            swaps += p.swaps;
+            writes += p.writes;
+            accesses += p.accesses;
+            distance += p.distance;
+            far += p.farAccesses;
+            allocated = allocated < 0 || p.allocatedBytes < 0 ? -1 : allocated + p.allocatedBytes;
+        }
+        return new Phase("total", nanos, comparisons, swaps, writes, accesses, distance, far, allocated);
+    }
+
+    public String toCsv() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("algorithm,size,phase,nanos,comparisons,swaps,writes,accesses,mean_distance,far_accesses,"
+                + "allocated_bytes,ops_per_second\n");
+        List<Phase> rows = new ArrayList<>(phases);
+        rows.add(total());
+        for (Phase p : rows) {
+            sb.append(csvField(algorithm)).append(',').append(size).append(',').append(csvField(p.name))
+                    .append(',').append(p.nanos).append(',').append(p.comparisons).append(',').append(p.swaps)
+                    .append(',').append(p.writes).append(',').append(p.accesses).append(',')
+                    .append(String.format(Locale.ROOT, "%.2f", p.getMeanDistance())).append(',')
+                    .append(p.farAccesses).append(',').append(p.allocatedBytes).append(',')
+                    .append(String.format(Locale.ROOT, "%.0f", p.getOpsPerSecond())).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"algorithm\": ").append(jsonString(algorithm)).append(",\n  \"size\": ").append(size)
+                .append(",\n  \"phases\": [");
+        for (int i = 0; i < phases.size(); i++) {
+            sb.append(i == 0 ? "\n    " : ",\n    ");
+            appendJson(sb, phases.get(i));
+        }
+        sb.append(phases.isEmpty() ? "],\n  \"total\": " : "\n  ],\n  \"total\": ");
+        appendJson(sb, total());
+        return sb.append("\n}\n").toString();
+    }
+
+    private static void appendJson(StringBuilder sb, Phase p) {
+        sb.append("{\"phase\": ").append(jsonString(p.name)).append(", \"nanos\": ").append(p.nanos)
+                .append(", \"comparisons\": ").append(p.comparisons).append(", \"swaps\": ").append(p.swaps)
+                .append(", \"writes\": ").append(p.writes).append(", \"accesses\": ").append(p.accesses)
+                .append(", \"meanDistance\": ").append(String.format(Locale.ROOT, "%.2f", p.getMeanDistance()))
+                .append(", \"farAccesses\": ").append(p.farAccesses).append(", \"allocatedBytes\": ")
+                .append(p.allocatedBytes).append(", \"opsPerSecond\": ")
+                .append(String.format(Locale.ROOT, "%.0f", p.getOpsPerSecond())).append('}');
+    }
+
+    private static String csvField(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0)
+            return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static String jsonString(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
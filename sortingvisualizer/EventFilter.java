@@ -0,0 +1,250 @@
+package sortingvisualizer;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Which {@link SortController} events reach a controller, and how often.
+ *
+ * An event type can be disabled outright; disabled compares and swaps still
+ * reach the statistics through addComparison and addSwap, so the counts stay
+ * exact. Highlight events (compare, pivot, sub-array and worker range) can be
+ * sampled, passing one in every N of each type. Collapsing sorted marks drops
+ * every markSorted for an index that is already marked, and passes a range
+ * on as one call per run of unmarked indices; marks never clear during a
+ * run, so the panel ends up the same.
+ *
+ * Swaps and writes are never sampled: the panel replays them onto its own
+ * copy of the array. Disabling them is meant for headless runs.
+ *
+ * {@link #apply} returns the controller itself when the filter passes
+ * everything. {@link #OFF} returns a controller whose callbacks are empty,
+ * so the JIT can inline them away and an instrumented sort runs as if it
+ * were not; it drops the counts too.
+ *
+ * Filters are written as comma-separated specs for {@link #parse}:
+ * {@code all}, {@code none}, {@code off}, or any of {@code no-<event>}
+ * (e.g. {@code no-compare}, {@code no-mark-sorted}), {@code sample=N} and
+ * {@code collapse-sorted}.
+ */
+public final class EventFilter {
+    /** System property holding the filter spec the visualizer applies. */
+    public static final String EVENTS_PROPERTY = "sortingvisualizer.events";
+
+    /** Passes every event; applying it returns the controller unchanged. */
+    public static final EventFilter ALL = new EventFilter(EnumSet.noneOf(SortStep.StepType.class), 1, false);
+    /** Drops every event but keeps the comparison and swap counts. */
+    public static final EventFilter NONE = new EventFilter(EnumSet.allOf(SortStep.StepType.class), 1, false);
+    /** Drops every event and every count; only cancellation and phases get through. */
+    public static final EventFilter OFF = new EventFilter(EnumSet.allOf(SortStep.StepType.class), 1, false, true);
+
+    private static final Set<SortStep.StepType> SAMPLED = Collections.unmodifiableSet(EnumSet.of(
+            SortStep.StepType.COMPARE, SortStep.StepType.PIVOT, SortStep.StepType.SUB_ARRAY,
+            SortStep.StepType.WORKER_RANGE));
+
+    private final Set<SortStep.StepType> disabled;
+    private final int sampleEvery;
+    private final boolean collapseSorted;
+    private final boolean silent;
+
+    public EventFilter(Set<SortStep.StepType> disabled, int sampleEvery, boolean collapseSorted) {
+        this(disabled, sampleEvery, collapseSorted, false);
+    }
+
+    private EventFilter(Set<SortStep.StepType> disabled, int sampleEvery, boolean collapseSorted, boolean silent) {
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("Sample interval must be at least 1: " + sampleEvery);
+        }
+        this.disabled = disabled.isEmpty() ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(disabled));
+        this.sampleEvery = sampleEvery;
+        this.collapseSorted = collapseSorted;
+        this.silent = silent;
+    }
+
+    /**
+     * Reads a spec such as {@code "no-pivot,sample=8,collapse-sorted"}.
+     * Throws IllegalArgumentException for anything it does not recognise.
+     */
+    public static EventFilter parse(String spec) {
+        String trimmed = spec.trim().toLowerCase(Locale.ROOT);
+        switch (trimmed) {
+            case "":
+            case "all":
+                return ALL;
+            case "none":
+                return NONE;
+            case "off":
+                return OFF;
+            default:
+                break;
+        }
+        Set<SortStep.StepType> disabled = EnumSet.noneOf(SortStep.StepType.class);
+        int sampleEvery = 1;
+        boolean collapseSorted = false;
+        for (String token : trimmed.split(",")) {
+            token = token.trim();
+            if (token.equals("collapse-sorted")) {
+                collapseSorted = true;
+            } else if (token.startsWith("sample=")) {
+                try {
+                    sampleEvery = Integer.parseInt(token.substring("sample=".length()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Bad sample interval: " + token);
+                }
+            } else if (token.startsWith("no-")) {
+                disabled.add(stepType(token.substring("no-".length())));
+            } else {
+                throw new IllegalArgumentException("Unknown event filter: " + token);
+            }
+        }
+        return new EventFilter(disabled, sampleEvery, collapseSorted);
+    }
+
+    // The filter named by the system property, or defaultSpec when it is not set
+    public static EventFilter fromSystemProperty(String defaultSpec) {
+        return parse(System.getProperty(EVENTS_PROPERTY, defaultSpec));
+    }
+
+    private static SortStep.StepType stepType(String name) {
+        for (SortStep.StepType type : SortStep.StepType.values()) {
+            if (type.name().replace('_', '-').equalsIgnoreCase(name))
+                return type;
+        }
+        throw new IllegalArgumentException("Unknown event: " + name);
+    }
+
+    /** Wraps controller in this filter, or returns it as is when nothing is filtered. */
+    public SortController apply(SortController controller) {
+        if (silent)
+            return new SilentController(controller);
+        if (passesAll())
+            return controller;
+        return new FilteredSortController(controller, this);
+    }
+
+    public boolean passesAll() {
+        return !silent && disabled.isEmpty() && sampleEvery == 1 && !collapseSorted;
+    }
+
+    // Whether every swap and write gets through, which a panel replaying them onto its own array needs
+    public boolean keepsArrayChanges() {
+        return !silent && isEnabled(SortStep.StepType.SWAP) && isEnabled(SortStep.StepType.SET_VALUE);
+    }
+
+    public boolean isEnabled(SortStep.StepType type) {
+        return !disabled.contains(type);
+    }
+
+    // Whether one in every getSampleEvery() events of this type is passed rather than all of them
+    public boolean isSampled(SortStep.StepType type) {
+        return sampleEvery > 1 && SAMPLED.contains(type);
+    }
+
+    public int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    public boolean isCollapseSorted() {
+        return collapseSorted;
+    }
+
+    @Override
+    public String toString() {
+        if (silent)
+            return "off";
+        if (passesAll())
+            return "all";
+        StringBuilder sb = new StringBuilder();
+        for (SortStep.StepType type : disabled) {
+            sb.append(sb.length() == 0 ? "" : ",").append("no-")
+                    .append(type.name().replace('_', '-').toLowerCase(Locale.ROOT));
+        }
+        if (sampleEvery > 1) {
+            sb.append(sb.length() == 0 ? "" : ",").append("sample=").append(sampleEvery);
+        }
+        if (collapseSorted) {
+            sb.append(sb.length() == 0 ? "" : ",").append("collapse-sorted");
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Holds no state, so parallel workers can share it without a lock; the
+     * cancelled flag it forwards is a single field read in every controller.
+     */
+    private static final class SilentController implements SortController {
+        private final SortController delegate;
+
+        SilentController(SortController delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void compare(int idx1, int idx2) {
+        }
+
+        @Override
+        public void swap(int idx1, int idx2) {
+        }
+
+        @Override
+        public void setValue(int index, int value) {
+        }
+
+        @Override
+        public void markSorted(int index) {
+        }
+
+        @Override
+        public void markSorted(int start, int end) {
+        }
+
+        @Override
+        public void clearHighlights() {
+        }
+
+        @Override
+        public void pivot(int index) {
+        }
+
+        @Override
+        public void subArray(int start, int end) {
+        }
+
+        @Override
+        public void workerRange(int lane, int start, int end) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return delegate.isCancelled();
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public void phaseCompleted(String phase, long nanos) {
+            synchronized (this) {
+                delegate.phaseCompleted(phase, nanos);
+            }
+        }
+
+        @Override
+        public void addComparison() {
+        }
+
+        @Override
+        public void addComparisons(long count) {
+        }
+
+        @Override
+        public void addSwap() {
+        }
+    }
+}
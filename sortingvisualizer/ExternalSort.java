@@ -0,0 +1,534 @@
+package sortingvisualizer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Out-of-core merge sort for files of ints that do not fit on the heap.
+ *
+ * Files hold raw big-endian ints, as written by DataOutputStream. The input
+ * is mapped one chunk at a time, each chunk is copied into direct memory,
+ * sorted there as an {@link IntArray} by an ordinary {@link ISortingAlgorithm}
+ * and spilled to a temporary run file,
+ * and the runs are k-way merged through a binary heap of run heads. With more
+ * runs than the fan-in, intermediate passes merge groups of runs first, so
+ * the heap never needs more than chunk size + fan-in read buffers.
+ *
+ * Chunks are millions of arbitrary ints, so only algorithms that stay
+ * O(n log n) or linear in the key width whatever the values are accepted:
+ * quadratic sorts, quicksorts without a fallback and sorts that index by
+ * value ("O(n + k)", "O(d*n)") are rejected, see {@link #sortsChunks}.
+ *
+ * Progress goes to a {@link SortController} in display coordinates: the file
+ * is shown as {@link #displaySize} bars, each standing for an equal slice of
+ * the elements and drawn from the first value of its slice, scaled into
+ * 1..bars. After the runs are sorted the bars show them as a sawtooth. The
+ * final merge then rewrites each bar with the output value and marks it
+ * sorted as the output passes it. Phase times are reported through
+ * {@link SortController#phaseCompleted}.
+ *
+ * Usage:
+ * java -cp bin sortingvisualizer.ExternalSort generate --size=N --out=FILE [--seed=42]
+ * java -cp bin sortingvisualizer.ExternalSort sort --in=FILE --out=FILE [--algorithm=PDQ_SORT]
+ * [--chunk=N] [--fan-in=N]
+ */
+public class ExternalSort {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 22; // 16 MB of ints
+    public static final int DEFAULT_FAN_IN = 64;
+    public static final int MAX_DISPLAY_SIZE = 1000;
+
+    // Per-run read buffer in the merge, and the output buffer
+    private static final int IO_BUFFER_BYTES = 1 << 16;
+    private static final int CANCEL_CHECK_INTERVAL = 1 << 16;
+
+    // Worst cases that do not depend on the order or magnitude of the values
+    private static final Set<String> CHUNK_WORST_CASES = Set.of("O(n log n)", "O(n log^2 n)", "O(w/b*n)",
+            "O(w/8*n)");
+
+    private static final String USAGE = "Usage: ExternalSort generate --size=N --out=FILE [--seed=N]\n"
+            + "       ExternalSort sort --in=FILE --out=FILE [--algorithm=NAME] [--chunk=N] [--fan-in=N]";
+
+    private final ISortingAlgorithm algorithm;
+    private final int chunkSize;
+    private final int fanIn;
+    private final Path tempDir;
+
+    public ExternalSort(ISortingAlgorithm algorithm) {
+        this(algorithm, DEFAULT_CHUNK_SIZE, DEFAULT_FAN_IN, null);
+    }
+
+    // tempDir null uses the default temporary-file directory
+    public ExternalSort(ISortingAlgorithm algorithm, int chunkSize, int fanIn, Path tempDir) {
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        if (fanIn < 2)
+            throw new IllegalArgumentException("fanIn must be at least 2: " + fanIn);
+        if (!sortsChunks(algorithm.getInfo()))
+            throw new IllegalArgumentException(algorithm.getName() + " is " + algorithm.getInfo().getWorstCaseTime()
+                    + " in the worst case and cannot sort chunks of arbitrary ints");
+        this.algorithm = algorithm;
+        this.chunkSize = chunkSize;
+        this.fanIn = fanIn;
+        this.tempDir = tempDir;
+    }
+
+    // Whether an algorithm with this info is accepted for sorting chunks
+    public static boolean sortsChunks(AlgorithmInfo info) {
+        return CHUNK_WORST_CASES.contains(info.getWorstCaseTime());
+    }
+
+    public static long elementCount(Path file) throws IOException {
+        long bytes = Files.size(file);
+        if (bytes % Integer.BYTES != 0)
+            throw new IOException(file + " is not a whole number of ints (" + bytes + " bytes)");
+        return bytes / Integer.BYTES;
+    }
+
+    // Number of bars progress is reported on for a file of this many elements
+    public static int displaySize(long elements) {
+        return (int) Math.min(MAX_DISPLAY_SIZE, elements);
+    }
+
+    /**
+     * Sorts input into output. Returns false if the progress controller
+     * cancelled the sort, in which case output is incomplete. Temporary runs
+     * are deleted either way.
+     */
+    public boolean sort(Path input, Path output, SortController progress) throws IOException, InterruptedException {
+        long n = elementCount(input);
+        int bars = displaySize(n);
+        List<Path> runs = new ArrayList<>();
+        // Runs written by merge passes, so a pass that stops part way leaves none behind
+        List<Path> merged = new ArrayList<>();
+        try {
+            long start = System.nanoTime();
+            int[] samples = new int[bars];
+            long[] range = { Long.MAX_VALUE, Long.MIN_VALUE };
+            if (!createRuns(input, n, runs, samples, range, progress))
+                return false;
+            progress.phaseCompleted("runs", System.nanoTime() - start);
+
+            for (int b = 0; b < bars; b++) {
+                progress.setValue(b, scale(samples[b], range, bars));
+            }
+
+            while (runs.size() > fanIn) {
+                start = System.nanoTime();
+                merged = new ArrayList<>();
+                for (int from = 0; from < runs.size(); from += fanIn) {
+                    List<Path> group = runs.subList(from, Math.min(runs.size(), from + fanIn));
+                    Path run = newRun();
+                    merged.add(run);
+                    if (!merge(group, run, 0, range, progress))
+                        return false;
+                }
+                for (Path run : runs) {
+                    Files.deleteIfExists(run);
+                }
+                runs = merged;
+                merged = new ArrayList<>();
+                progress.phaseCompleted("merge pass", System.nanoTime() - start);
+            }
+
+            start = System.nanoTime();
+            if (!merge(runs, output, bars, range, progress))
+                return false;
+            progress.phaseCompleted("merge", System.nanoTime() - start);
+            progress.clearHighlights();
+            return true;
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+            for (Path run : merged) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    private boolean createRuns(Path input, long n, List<Path> runs, int[] samples, long[] range,
+            SortController progress) throws IOException, InterruptedException {
+        int bars = samples.length;
+        SortController chunkController = new ChunkController(progress);
+        // Off the heap, so a chunk adds nothing for the GC to scan when the algorithm sorts an IntArray in place
+        IntArray chunk = IntArray.allocateDirect(Math.min(chunkSize, n));
+        ByteBuffer io = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            int bar = 0;
+            for (long pos = 0; pos < n;) {
+                int length = (int) Math.min(chunk.length(), n - pos);
+                // Algorithms sort whole arrays; only the last chunk can be short
+                if (length < chunk.length()) {
+                    chunk = IntArray.allocateDirect(length);
+                }
+                MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, pos * Integer.BYTES,
+                        (long) length * Integer.BYTES);
+                IntBuffer values = window.asIntBuffer();
+                for (int i = 0; i < length; i++) {
+                    chunk.set(i, values.get(i));
+                }
+                int firstBar = firstBar(pos, n, bars);
+                int endBar = firstBar(pos + length, n, bars);
+                if (endBar > firstBar) {
+                    progress.subArray(firstBar, endBar - 1);
+                }
+                algorithm.runSort(chunk, chunkController);
+                if (progress.isCancelled())
+                    return false;
+
+                Path run = newRun();
+                runs.add(run);
+                try (FileChannel out = FileChannel.open(run, StandardOpenOption.WRITE)) {
+                    write(out, io, chunk);
+                }
+                range[0] = Math.min(range[0], chunk.get(0));
+                range[1] = Math.max(range[1], chunk.get(length - 1));
+                for (; bar < bars && barStart(bar, n, bars) < pos + length; bar++) {
+                    samples[bar] = chunk.get(barStart(bar, n, bars) - pos);
+                }
+                pos += length;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * K-way merges runs into output. With bars greater than zero, every
+     * element that starts a bar's slice is reported as that bar's new value.
+     */
+    private boolean merge(List<Path> runs, Path output, int bars, long[] range, SortController progress)
+            throws IOException, InterruptedException {
+        int k = runs.size();
+        RunReader[] readers = new RunReader[k];
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long n = 0;
+            for (int r = 0; r < k; r++) {
+                readers[r] = new RunReader(runs.get(r));
+                n += readers[r].length;
+            }
+
+            // Min-heap of run indices ordered by their current head
+            int[] heap = new int[k];
+            int size = 0;
+            for (int r = 0; r < k; r++) {
+                if (readers[r].advance()) {
+                    heap[size++] = r;
+                }
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(heap, i, size, readers);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+            IntBuffer ints = buffer.asIntBuffer();
+            int bar = 0;
+            long nextBar = bars > 0 ? 0 : Long.MAX_VALUE;
+            for (long pos = 0; size > 0; pos++) {
+                if (pos % CANCEL_CHECK_INTERVAL == 0 && progress.isCancelled())
+                    return false;
+                RunReader top = readers[heap[0]];
+                int value = top.head;
+                if (!ints.hasRemaining()) {
+                    flush(out, buffer, ints);
+                }
+                ints.put(value);
+                if (pos == nextBar) {
+                    progress.setValue(bar, scale(value, range, bars));
+                    progress.markSorted(bar);
+                    nextBar = ++bar < bars ? barStart(bar, n, bars) : Long.MAX_VALUE;
+                }
+                if (!top.advance()) {
+                    heap[0] = heap[--size];
+                }
+                siftDown(heap, 0, size, readers);
+            }
+            flush(out, buffer, ints);
+            return true;
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    private Path newRun() throws IOException {
+        return tempDir == null ? Files.createTempFile("external-sort", ".run")
+                : Files.createTempFile(tempDir, "external-sort", ".run");
+    }
+
+    private static void siftDown(int[] heap, int i, int size, RunReader[] readers) {
+        int run = heap[i];
+        int value = readers[run].head;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && readers[heap[child + 1]].head < readers[heap[child]].head) {
+                child++;
+            }
+            if (value <= readers[heap[child]].head)
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = run;
+    }
+
+    private static long barStart(int bar, long n, int bars) {
+        return bar * n / bars;
+    }
+
+    // First bar whose slice starts at or after pos
+    private static int firstBar(long pos, long n, int bars) {
+        return (int) ((pos * bars + n - 1) / n);
+    }
+
+    private static int scale(int value, long[] range, int bars) {
+        long span = range[1] - range[0];
+        return 1 + (int) (span == 0 ? 0 : (value - range[0]) * (bars - 1) / span);
+    }
+
+    private static void write(FileChannel out, ByteBuffer buffer, IntArray data) throws IOException {
+        IntBuffer ints = buffer.clear().asIntBuffer();
+        long length = data.length();
+        for (long from = 0; from < length;) {
+            int count = (int) Math.min(ints.capacity(), length - from);
+            ints.clear();
+            for (int i = 0; i < count; i++) {
+                ints.put(data.get(from + i));
+            }
+            buffer.clear().limit(count * Integer.BYTES);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            from += count;
+        }
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer, IntBuffer ints) throws IOException {
+        buffer.clear().limit(ints.position() * Integer.BYTES);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        ints.clear();
+    }
+
+    /** Streams one sorted run through a small direct buffer. */
+    private static final class RunReader {
+        final long length;
+        int head;
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+        private IntBuffer ints = buffer.asIntBuffer().limit(0);
+
+        RunReader(Path run) throws IOException {
+            channel = FileChannel.open(run, StandardOpenOption.READ);
+            length = channel.size() / Integer.BYTES;
+        }
+
+        // Moves head to the next value; false once the run is exhausted
+        boolean advance() throws IOException {
+            if (!ints.hasRemaining()) {
+                buffer.clear();
+                // Runs are whole ints, so a full read or the end of the file leaves none split
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0)
+                    ;
+                buffer.flip();
+                ints = buffer.asIntBuffer();
+                if (!ints.hasRemaining())
+                    return false;
+            }
+            head = ints.get();
+            return true;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /** Lets chunk sorts run at full speed while still honouring cancellation. */
+    private static final class ChunkController implements SortController {
+        private final SortController progress;
+
+        ChunkController(SortController progress) {
+            this.progress = progress;
+        }
+
+        @Override
+        public void compare(int idx1, int idx2) {
+        }
+
+        @Override
+        public void swap(int idx1, int idx2) {
+        }
+
+        @Override
+        public void setValue(int index, int value) {
+        }
+
+        @Override
+        public void markSorted(int index) {
+        }
+
+        @Override
+        public void markSorted(int start, int end) {
+        }
+
+        @Override
+        public void clearHighlights() {
+        }
+
+        @Override
+        public void pivot(int index) {
+        }
+
+        @Override
+        public void subArray(int start, int end) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return progress.isCancelled();
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public void addComparison() {
+        }
+
+        @Override
+        public void addComparisons(long count) {
+        }
+
+        @Override
+        public void addSwap() {
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        try {
+            if (args.length >= 1 && args[0].equals("generate")) {
+                generate(args);
+            } else if (args.length >= 1 && args[0].equals("sort")) {
+                sort(args);
+            } else {
+                throw new IllegalArgumentException("Missing or unknown command");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+    }
+
+    private static void generate(String[] args) throws IOException {
+        long size = -1;
+        long seed = 42;
+        Path out = null;
+        for (int i = 1; i < args.length; i++) {
+            String[] option = option(args[i]);
+            switch (option[0]) {
+                case "size":
+                    size = Long.parseLong(option[1]);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(option[1]);
+                    break;
+                case "out":
+                    out = Paths.get(option[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + option[0]);
+            }
+        }
+        if (size < 0 || out == null) {
+            throw new IllegalArgumentException("--size and --out are required");
+        }
+
+        Random random = new Random(seed);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+        IntBuffer ints = buffer.asIntBuffer();
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long i = 0; i < size; i++) {
+                if (!ints.hasRemaining()) {
+                    flush(channel, buffer, ints);
+                }
+                ints.put(random.nextInt());
+            }
+            flush(channel, buffer, ints);
+        }
+        System.out.printf("Wrote %d random ints to %s%n", size, out);
+    }
+
+    private static void sort(String[] args) throws IOException, InterruptedException {
+        Path in = null;
+        Path out = null;
+        AlgorithmRegistry.Entry algorithm = Algorithm.PDQ_SORT.entry();
+        int chunk = DEFAULT_CHUNK_SIZE;
+        int fanIn = DEFAULT_FAN_IN;
+        for (int i = 1; i < args.length; i++) {
+            String[] option = option(args[i]);
+            switch (option[0]) {
+                case "in":
+                    in = Paths.get(option[1]);
+                    break;
+                case "out":
+                    out = Paths.get(option[1]);
+                    break;
+                case "algorithm":
+                    algorithm = AlgorithmRegistry.getDefault().find(option[1]);
+                    break;
+                case "chunk":
+                    chunk = Integer.parseInt(option[1]);
+                    break;
+                case "fan-in":
+                    fanIn = Integer.parseInt(option[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + option[0]);
+            }
+        }
+        if (in == null || out == null) {
+            throw new IllegalArgumentException("--in and --out are required");
+        }
+
+        HeadlessController controller = new HeadlessController();
+        long start = System.nanoTime();
+        new ExternalSort(algorithm.newInstance(), chunk, fanIn, null).sort(in, out, controller);
+        System.out.printf("Sorted %d ints with %s in %.1f ms%n", elementCount(in), algorithm,
+                (System.nanoTime() - start) / 1e6);
+        for (Map.Entry<String, Long> phase : controller.getPhaseTimes().entrySet()) {
+            System.out.printf("  %-10s %10.1f ms%n", phase.getKey(), phase.getValue() / 1e6);
+        }
+    }
+
+    private static String[] option(String arg) {
+        int eq = arg.indexOf('=');
+        if (!arg.startsWith("--") || eq < 0) {
+            throw new IllegalArgumentException("Unrecognized argument: " + arg);
+        }
+        return new String[] { arg.substring(2, eq), arg.substring(eq + 1) };
+    }
+}
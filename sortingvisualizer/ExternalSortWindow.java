@@ -0,0 +1,109 @@
+package sortingvisualizer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Shows an {@link ExternalSort} of a file while it runs: the bars are a
+ * downsampled view of the file, highlighted chunk by chunk while the runs are
+ * sorted and turning green from left to right as the final merge writes the
+ * output.
+ */
+public class ExternalSortWindow extends JFrame {
+    private static final long serialVersionUID = 1L;
+
+    private final SortPanel sortPanel = new SortPanel();
+    private final LiveSortController controller = new LiveSortController(() -> StepPacer.UNLIMITED) {
+        @Override
+        public void phaseCompleted(String name, long nanos) {
+            if (name.equals("runs")) {
+                phase = "Merging runs...";
+            }
+        }
+    };
+    private final FrameScheduler frameScheduler = new FrameScheduler(this::renderFrame);
+    private final JLabel statusLabel = new JLabel();
+    private final SwingWorker<Boolean, Void> worker;
+    private volatile String phase;
+
+    public ExternalSortWindow(Path input, Path output, AlgorithmRegistry.Entry algorithm) throws IOException {
+        long elements = ExternalSort.elementCount(input);
+        setTitle("External Sort: " + input.getFileName() + " (" + elements + " ints, " + algorithm + ")");
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        sortPanel.setArray(new int[ExternalSort.displaySize(elements)]);
+        add(sortPanel, BorderLayout.CENTER);
+        add(createControlPanel(), BorderLayout.SOUTH);
+        phase = "Sorting runs of " + ExternalSort.DEFAULT_CHUNK_SIZE + " ints...";
+        statusLabel.setText(phase);
+
+        worker = new SwingWorker<>() {
+            private final long start = System.nanoTime();
+
+            @Override
+            protected Boolean doInBackground() throws Exception {
+                return new ExternalSort(algorithm.newInstance()).sort(input, output, controller);
+            }
+
+            @Override
+            protected void done() {
+                frameScheduler.stop();
+                renderFrame();
+                try {
+                    if (get()) {
+                        statusLabel.setText(String.format("Sorted into %s in %.1f s", output.getFileName(),
+                                (System.nanoTime() - start) / 1e9));
+                    } else {
+                        statusLabel.setText("Cancelled; " + output.getFileName() + " is incomplete");
+                    }
+                } catch (Exception e) {
+                    statusLabel.setText("Failed: " + (e.getCause() != null ? e.getCause() : e));
+                }
+            }
+        };
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                controller.cancel();
+                frameScheduler.stop();
+            }
+        });
+
+        pack();
+        setMinimumSize(new Dimension(800, 500));
+        setLocationRelativeTo(null);
+        setVisible(true);
+        frameScheduler.start();
+        worker.execute();
+    }
+
+    private JPanel createControlPanel() {
+        JPanel controlPanel = new JPanel(new BorderLayout(10, 0));
+        controlPanel.setBackground(new Color(30, 30, 30)); // Dark Gray
+        controlPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+
+        statusLabel.setForeground(Color.WHITE);
+        controlPanel.add(statusLabel, BorderLayout.CENTER);
+
+        JButton cancelButton = new JButton("Cancel");
+        cancelButton.setBackground(new Color(231, 76, 60)); // Red
+        cancelButton.setForeground(Color.WHITE);
+        cancelButton.setFocusPainted(false);
+        cancelButton.addActionListener(e -> controller.cancel());
+        controlPanel.add(cancelButton, BorderLayout.EAST);
+        return controlPanel;
+    }
+
+    private void renderFrame() {
+        if (!worker.isDone()) {
+            statusLabel.setText(phase);
+        }
+        sortPanel.processSteps(controller.takeSteps());
+    }
+}
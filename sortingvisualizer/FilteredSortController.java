@@ -0,0 +1,182 @@
+package sortingvisualizer;
+
+import java.util.BitSet;
+
+/**
+ * Passes a controller only the events an {@link EventFilter} lets through.
+ * Create it with {@link EventFilter#apply}, which skips the wrapper when the
+ * filter passes everything.
+ *
+ * The sample counters and sorted marks are kept per instance, so one
+ * instance serves one run. They are updated under this object's lock and
+ * events are passed on after releasing it, so the wrapper is as thread-safe
+ * as its delegate.
+ */
+public class FilteredSortController implements SortController {
+    private final SortController delegate;
+    private final EventFilter filter;
+
+    // Looked up once; the callbacks only read these fields
+    private final boolean compare, swap, setValue, markSorted, clearHighlights, pivot, subArray, workerRange;
+    private final int sampleEvery;
+    private final boolean sampleCompare, samplePivot, sampleSubArray, sampleWorkerRange;
+    // Events of each type still to skip before the next sample, guarded by this
+    private final int[] countdowns = new int[SortStep.StepType.values().length];
+
+    // Indices already marked sorted, guarded by this; null unless the filter collapses marks
+    private final BitSet sorted;
+
+    public FilteredSortController(SortController delegate, EventFilter filter) {
+        this.delegate = delegate;
+        this.filter = filter;
+        compare = filter.isEnabled(SortStep.StepType.COMPARE);
+        swap = filter.isEnabled(SortStep.StepType.SWAP);
+        setValue = filter.isEnabled(SortStep.StepType.SET_VALUE);
+        markSorted = filter.isEnabled(SortStep.StepType.MARK_SORTED);
+        clearHighlights = filter.isEnabled(SortStep.StepType.CLEAR_HIGHLIGHTS);
+        pivot = filter.isEnabled(SortStep.StepType.PIVOT);
+        subArray = filter.isEnabled(SortStep.StepType.SUB_ARRAY);
+        workerRange = filter.isEnabled(SortStep.StepType.WORKER_RANGE);
+        sampleEvery = filter.getSampleEvery();
+        sampleCompare = filter.isSampled(SortStep.StepType.COMPARE);
+        samplePivot = filter.isSampled(SortStep.StepType.PIVOT);
+        sampleSubArray = filter.isSampled(SortStep.StepType.SUB_ARRAY);
+        sampleWorkerRange = filter.isSampled(SortStep.StepType.WORKER_RANGE);
+        sorted = filter.isCollapseSorted() ? new BitSet() : null;
+    }
+
+    public EventFilter getFilter() {
+        return filter;
+    }
+
+    // True for every sampleEvery-th event of the type, starting with the first
+    private synchronized boolean sample(SortStep.StepType type) {
+        if (--countdowns[type.ordinal()] >= 0)
+            return false;
+        countdowns[type.ordinal()] = sampleEvery - 1;
+        return true;
+    }
+
+    @Override
+    public void compare(int idx1, int idx2) throws InterruptedException {
+        if (compare && (!sampleCompare || sample(SortStep.StepType.COMPARE))) {
+            delegate.compare(idx1, idx2);
+        } else {
+            delegate.addComparison();
+        }
+    }
+
+    @Override
+    public void swap(int idx1, int idx2) throws InterruptedException {
+        if (swap) {
+            delegate.swap(idx1, idx2);
+        } else {
+            delegate.addSwap();
+        }
+    }
+
+    @Override
+    public void setValue(int index, int value) throws InterruptedException {
+        if (setValue) {
+            delegate.setValue(index, value);
+        }
+    }
+
+    @Override
+    public void markSorted(int index) throws InterruptedException {
+        if (!markSorted)
+            return;
+        if (sorted != null) {
+            synchronized (this) {
+                if (index < 0 || sorted.get(index))
+                    return;
+                sorted.set(index);
+            }
+        }
+        delegate.markSorted(index);
+    }
+
+    // Passes each run of indices not yet marked on as one range
+    @Override
+    public void markSorted(int start, int end) throws InterruptedException {
+        if (!markSorted || start > end)
+            return;
+        if (sorted == null) {
+            delegate.markSorted(start, end);
+            return;
+        }
+        for (int from = Math.max(start, 0); from <= end; ) {
+            int to;
+            synchronized (this) {
+                from = sorted.nextClearBit(from);
+                if (from > end)
+                    return;
+                int next = sorted.nextSetBit(from);
+                to = next < 0 || next > end ? end : next - 1;
+                sorted.set(from, to + 1);
+            }
+            delegate.markSorted(from, to);
+            from = to + 1;
+        }
+    }
+
+    @Override
+    public void clearHighlights() throws InterruptedException {
+        if (clearHighlights) {
+            delegate.clearHighlights();
+        }
+    }
+
+    @Override
+    public void pivot(int index) throws InterruptedException {
+        if (pivot && (!samplePivot || sample(SortStep.StepType.PIVOT))) {
+            delegate.pivot(index);
+        }
+    }
+
+    @Override
+    public void subArray(int start, int end) throws InterruptedException {
+        if (subArray && (!sampleSubArray || sample(SortStep.StepType.SUB_ARRAY))) {
+            delegate.subArray(start, end);
+        }
+    }
+
+    @Override
+    public void workerRange(int lane, int start, int end) throws InterruptedException {
+        // Clearing a lane is never sampled away, or the lane would stay lit
+        boolean clear = start < 0;
+        if (workerRange && (clear || !sampleWorkerRange || sample(SortStep.StepType.WORKER_RANGE))) {
+            delegate.workerRange(lane, start, end);
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return delegate.isCancelled();
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return delegate.isThreadSafe();
+    }
+
+    @Override
+    public void phaseCompleted(String phase, long nanos) {
+        delegate.phaseCompleted(phase, nanos);
+    }
+
+    @Override
+    public void addComparison() {
+        delegate.addComparison();
+    }
+
+    @Override
+    public void addComparisons(long count) {
+        delegate.addComparisons(count);
+    }
+
+    @Override
+    public void addSwap() {
+        delegate.addSwap();
+    }
+}
@@ -0,0 +1,53 @@
+package sortingvisualizer;
+
+import javax.swing.Timer;
+
+/**
+ * Runs a frame callback on the EDT at a fixed target rate.
+ *
+ * The sort thread only records steps; each tick the callback applies
+ * everything recorded since the previous tick and repaints once. Ticks that
+ * fall behind are coalesced by the Swing timer, so a slow frame never causes
+ * a backlog of paints.
+ */
+public class FrameScheduler {
+    public static final int DEFAULT_FPS = 60;
+    public static final int MIN_FPS = 1;
+    public static final int MAX_FPS = 240;
+
+    private final Timer timer;
+    private int targetFps;
+
+    public FrameScheduler(Runnable frame) {
+        this(DEFAULT_FPS, frame);
+    }
+
+    public FrameScheduler(int targetFps, Runnable frame) {
+        this.timer = new Timer(0, e -> frame.run());
+        this.timer.setCoalesce(true);
+        setTargetFps(targetFps);
+    }
+
+    public void setTargetFps(int fps) {
+        this.targetFps = Math.max(MIN_FPS, Math.min(MAX_FPS, fps));
+        int period = Math.max(1, 1000 / targetFps);
+        timer.setDelay(period);
+        timer.setInitialDelay(period);
+    }
+
+    public int getTargetFps() {
+        return targetFps;
+    }
+
+    public void start() {
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+    }
+
+    public boolean isRunning() {
+        return timer.isRunning();
+    }
+}
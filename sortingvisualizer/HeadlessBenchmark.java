@@ -0,0 +1,166 @@
+package sortingvisualizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Command-line entry point that runs the sorting algorithms without Swing.
+ *
+ * Usage:
+ * java -cp bin sortingvisualizer.HeadlessBenchmark [--algorithms=QUICK_SORT,MERGE_SORT]
+ * [--sizes=1000,10000] [--distributions=random,sorted] [--runs=5] [--warmup=2] [--seed=42]
+ * [--events=all|none|off|no-compare,sample=8,collapse-sorted]
+ * java -cp bin sortingvisualizer.HeadlessBenchmark --list
+ *
+ * Every combination is sorted with a {@link HeadlessController}, so the timing
+ * reflects the algorithm itself rather than the animation delay. An
+ * {@link EventFilter} given with --events sits in front of it, to measure
+ * what the callbacks cost.
+ */
+public class HeadlessBenchmark {
+    private static final String USAGE = "Usage: HeadlessBenchmark [--algorithms=A,B] [--sizes=N,M] "
+            + "[--distributions=random,sorted,reversed,few-unique,organ-pipe] [--runs=N] [--warmup=N] [--seed=N]"
+            + " [--events=SPEC] | --list";
+
+    private List<AlgorithmRegistry.Entry> algorithms = new ArrayList<>(AlgorithmRegistry.getDefault().getAlgorithms());
+    private int[] sizes = { 1_000, 10_000 };
+    private List<InputDistribution> distributions = new ArrayList<>(Arrays.asList(InputDistribution.values()));
+    private int runs = 5;
+    private int warmup = 2;
+    private long seed = 42;
+    private EventFilter events = EventFilter.ALL;
+    private boolean list;
+
+    public static void main(String[] args) throws InterruptedException {
+        HeadlessBenchmark benchmark = new HeadlessBenchmark();
+        try {
+            benchmark.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        if (benchmark.list) {
+            listAlgorithms();
+            return;
+        }
+        benchmark.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--list")) {
+                list = true;
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Unrecognized argument: " + arg);
+            }
+            String key = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "algorithms":
+                    algorithms.clear();
+                    for (String name : value.split(","))
+                        algorithms.add(AlgorithmRegistry.getDefault().find(name));
+                    break;
+                case "sizes":
+                    sizes = Arrays.stream(value.split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+                    break;
+                case "distributions":
+                    distributions.clear();
+                    for (String name : value.split(","))
+                        distributions.add(InputDistribution.fromName(name.trim()));
+                    break;
+                case "runs":
+                    runs = Math.max(1, Integer.parseInt(value));
+                    break;
+                case "warmup":
+                    warmup = Math.max(0, Integer.parseInt(value));
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "events":
+                    events = EventFilter.parse(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + key);
+            }
+        }
+    }
+
+    // Every registered algorithm, including plugins, with its id for --algorithms
+    private static void listAlgorithms() {
+        for (AlgorithmRegistry.Entry algorithm : AlgorithmRegistry.getDefault().getAlgorithms()) {
+            System.out.printf("%-22s %-22s %s%s%n", algorithm.getId(), algorithm.getName(), algorithm.getInfo(),
+                    algorithm.isBuiltIn() ? "" : " (plugin)");
+        }
+        System.out.println("Kernels: " + SortKernels.get().getName());
+    }
+
+    private void run() throws InterruptedException {
+        if (!events.passesAll()) {
+            System.out.println("Events: " + events);
+        }
+        System.out.printf("%-22s %-12s %10s %12s %12s %16s %16s%n",
+                "Algorithm", "Input", "Size", "Best (ms)", "Median (ms)", "Comparisons", "Swaps");
+
+        HeadlessController controller = new HeadlessController();
+        for (AlgorithmRegistry.Entry algorithm : algorithms) {
+            for (InputDistribution distribution : distributions) {
+                for (int size : sizes) {
+                    int[] input = distribution.generate(size, new Random(seed));
+                    long[] times = new long[runs];
+
+                    for (int i = 0; i < warmup; i++) {
+                        algorithm.newInstance().runSort(Arrays.copyOf(input, input.length), events.apply(controller));
+                    }
+                    for (int i = 0; i < runs; i++) {
+                        int[] array = Arrays.copyOf(input, input.length);
+                        ISortingAlgorithm sorter = algorithm.newInstance();
+                        SortController filtered = events.apply(controller);
+                        controller.reset();
+                        long start = System.nanoTime();
+                        sorter.runSort(array, filtered);
+                        times[i] = System.nanoTime() - start;
+                        if (!isSorted(array)) {
+                            throw new IllegalStateException(algorithm + " produced an unsorted array for "
+                                    + distribution + " input of size " + size);
+                        }
+                    }
+
+                    Arrays.sort(times);
+                    System.out.printf("%-22s %-12s %10d %12.3f %12.3f %16d %16d%n",
+                            algorithm, distribution, size, times[0] / 1e6, times[runs / 2] / 1e6,
+                            controller.getComparisons(), controller.getSwaps());
+                    printPhases(controller);
+                }
+            }
+        }
+    }
+
+    // Phase breakdown of the last run, for algorithms that report one
+    private static void printPhases(HeadlessController controller) {
+        StringBuilder line = new StringBuilder();
+        for (Map.Entry<String, Long> phase : controller.getPhaseTimes().entrySet()) {
+            line.append(line.length() == 0 ? "    phases: " : ", ");
+            line.append(String.format("%s %.3f ms", phase.getKey(), phase.getValue() / 1e6));
+        }
+        if (line.length() > 0) {
+            System.out.println(line);
+        }
+    }
+
+    private static boolean isSorted(int[] array) {
+        for (int i = 1; i < array.length; i++) {
+            if (array[i - 1] > array[i])
+                return false;
+        }
+        return true;
+    }
+}
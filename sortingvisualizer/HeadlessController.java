@@ -0,0 +1,106 @@
+package sortingvisualizer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SortController that drives an algorithm without any UI. Visualization
+ * callbacks are no-ops and never sleep; only comparisons and swaps are
+ * counted, using the same rules as the GUI controller so the numbers match.
+ * The counters are striped so parallel algorithms can share one instance.
+ */
+public class HeadlessController implements SortController {
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder swaps = new LongAdder();
+    // Total nanoseconds per reported phase, in the order phases first ran
+    private final Map<String, Long> phaseTimes = new LinkedHashMap<>();
+
+    @Override
+    public void compare(int idx1, int idx2) {
+        comparisons.increment();
+    }
+
+    @Override
+    public void swap(int idx1, int idx2) {
+        swaps.increment();
+    }
+
+    @Override
+    public void setValue(int index, int value) {
+    }
+
+    @Override
+    public void markSorted(int index) {
+    }
+
+    @Override
+    public void markSorted(int start, int end) {
+    }
+
+    @Override
+    public void clearHighlights() {
+    }
+
+    @Override
+    public void pivot(int index) {
+    }
+
+    @Override
+    public void subArray(int start, int end) {
+    }
+
+    @Override
+    public void phaseCompleted(String phase, long nanos) {
+        synchronized (phaseTimes) {
+            phaseTimes.merge(phase, nanos, Long::sum);
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public void addComparison() {
+        comparisons.increment();
+    }
+
+    @Override
+    public void addComparisons(long count) {
+        comparisons.add(count);
+    }
+
+    @Override
+    public void addSwap() {
+        swaps.increment();
+    }
+
+    public long getComparisons() {
+        return comparisons.sum();
+    }
+
+    public long getSwaps() {
+        return swaps.sum();
+    }
+
+    public Map<String, Long> getPhaseTimes() {
+        synchronized (phaseTimes) {
+            return new LinkedHashMap<>(phaseTimes);
+        }
+    }
+
+    public void reset() {
+        comparisons.reset();
+        swaps.reset();
+        synchronized (phaseTimes) {
+            phaseTimes.clear();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package sortingvisualizer;
+
+/** An {@link IntArray} view of an ordinary int[]. */
+public final class HeapIntArray implements IntArray {
+    private final int[] array;
+
+    public HeapIntArray(int[] array) {
+        this.array = array;
+    }
+
+    // The backing array itself, so int[] algorithms can run on it without a copy
+    public int[] array() {
+        return array;
+    }
+
+    @Override
+    public long length() {
+        return array.length;
+    }
+
+    @Override
+    public int get(long index) {
+        return array[(int) index];
+    }
+
+    @Override
+    public void set(long index, int value) {
+        array[(int) index] = value;
+    }
+
+    @Override
+    public int[] toArray() {
+        return array.clone();
+    }
+
+    @Override
+    public void copyFrom(int[] values) {
+        if (values.length != array.length)
+            throw new IllegalArgumentException("Length mismatch: " + values.length + " != " + array.length);
+        System.arraycopy(values, 0, array, 0, values.length);
+    }
+}
@@ -3,5 +3,34 @@ package sortingvisualizer;
 public interface ISortingAlgorithm {
     String getName();
 
+    // Stability, memory use and complexity, shown in the GUI and listed by the benchmarks
+    default AlgorithmInfo getInfo() {
+        return AlgorithmInfo.UNKNOWN;
+    }
+
     void runSort(int[] array, SortController controller) throws InterruptedException;
+
+    // Other key types run on an order-preserving int[] image of the keys, see KeySort
+    default void runSort(long[] array, SortController controller) throws InterruptedException {
+        KeySort.sort(array, this, controller);
+    }
+
+    default void runSort(double[] array, SortController controller) throws InterruptedException {
+        KeySort.sort(array, this, controller);
+    }
+
+    default void runSort(float[] array, SortController controller) throws InterruptedException {
+        KeySort.sort(array, this, controller);
+    }
+
+    // Storage off the heap goes through an int[] copy unless the algorithm sorts an IntArray in place
+    default void runSort(IntArray array, SortController controller) throws InterruptedException {
+        if (array instanceof HeapIntArray) {
+            runSort(((HeapIntArray) array).array(), controller);
+            return;
+        }
+        int[] copy = array.toArray();
+        runSort(copy, controller);
+        array.copyFrom(copy);
+    }
 }
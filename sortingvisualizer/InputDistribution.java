@@ -0,0 +1,67 @@
+package sortingvisualizer;
+
+import java.util.Random;
+
+/**
+ * Shapes of input arrays used to exercise the algorithms outside the GUI.
+ * All generators produce values in 1..size so that Counting Sort and Radix
+ * Sort, which assume small non-negative keys, can run on every shape.
+ */
+public enum InputDistribution {
+    RANDOM("random"),
+    SORTED("sorted"),
+    REVERSED("reversed"),
+    FEW_UNIQUE("few-unique"),
+    ORGAN_PIPE("organ-pipe");
+
+    private static final int FEW_UNIQUE_VALUES = 8;
+
+    private final String displayName;
+
+    InputDistribution(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public int[] generate(int size, Random random) {
+        int[] array = new int[size];
+        switch (this) {
+            case RANDOM:
+                for (int i = 0; i < size; i++)
+                    array[i] = random.nextInt(size) + 1;
+                break;
+            case SORTED:
+                for (int i = 0; i < size; i++)
+                    array[i] = i + 1;
+                break;
+            case REVERSED:
+                for (int i = 0; i < size; i++)
+                    array[i] = size - i;
+                break;
+            case FEW_UNIQUE:
+                int step = Math.max(1, size / FEW_UNIQUE_VALUES);
+                for (int i = 0; i < size; i++)
+                    array[i] = (random.nextInt(FEW_UNIQUE_VALUES) * step) + 1;
+                break;
+            case ORGAN_PIPE:
+                // Ascending to the middle, then descending back down
+                for (int i = 0; i < size; i++)
+                    array[i] = Math.min(i, size - 1 - i) * 2 + 1;
+                break;
+        }
+        return array;
+    }
+
+    public static InputDistribution fromName(String name) {
+        for (InputDistribution distribution : values()) {
+            if (distribution.displayName.equalsIgnoreCase(name) || distribution.name().equalsIgnoreCase(name)) {
+                return distribution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown distribution: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
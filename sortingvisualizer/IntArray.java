@@ -0,0 +1,50 @@
+package sortingvisualizer;
+
+/**
+ * Long-indexed int storage, so a sort is not tied to one on-heap int[].
+ *
+ * {@link #wrap} views an existing int[] without copying. {@link #allocateDirect}
+ * keeps the elements outside the Java heap, in as many direct buffers as
+ * needed, so it can hold more than 2^31 elements and adds only a handful of
+ * objects for the GC to track.
+ */
+public interface IntArray {
+    long length();
+
+    int get(long index);
+
+    void set(long index, int value);
+
+    default void swap(long i, long j) {
+        int temp = get(i);
+        set(i, get(j));
+        set(j, temp);
+    }
+
+    // Copies the elements into a new int[]; fails if there are more than an int[] can hold
+    default int[] toArray() {
+        if (length() > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Too many elements for an int[]: " + length());
+        int[] array = new int[(int) length()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = get(i);
+        }
+        return array;
+    }
+
+    default void copyFrom(int[] values) {
+        if (values.length != length())
+            throw new IllegalArgumentException("Length mismatch: " + values.length + " != " + length());
+        for (int i = 0; i < values.length; i++) {
+            set(i, values[i]);
+        }
+    }
+
+    static IntArray wrap(int[] array) {
+        return new HeapIntArray(array);
+    }
+
+    static IntArray allocateDirect(long length) {
+        return new OffHeapIntArray(length);
+    }
+}
@@ -0,0 +1,277 @@
+package sortingvisualizer;
+
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Runs the int[] algorithms on other key types without boxing.
+ *
+ * Keys are first mapped to order-preserving 64-bit images (floating point
+ * values through their IEEE bits, ordered like {@link Double#compare}) and
+ * then to offsets from the minimum image. The algorithms only ever see
+ * non-negative ints below 2^22, so the ones that index by value (Counting,
+ * Radix Sort) work on any keys with a bounded count array. Offsets that fit
+ * are sorted in one run of an int[]; wider ones, such as most doubles, are
+ * sorted LSD-style in up to three runs over equal slices of their bits.
+ * Every comparison between keys is made by the chosen algorithm, so the
+ * controller sees all of the sorting work.
+ *
+ * Records are sorted by key through an int permutation carried inside the
+ * int key: offset * n + index when that fits. Otherwise each run sorts a copy of
+ * the keys and the permutation is read off the sorted copy, finding each
+ * key's run of equal values through a hash table, so it costs O(n) and no
+ * comparisons. Either way equal keys keep their input order, whatever the
+ * algorithm.
+ */
+public final class KeySort {
+    // Widest key handed to an algorithm; a 64-bit image takes three runs of it
+    private static final int MAX_KEY_BITS = 22;
+
+    private KeySort() {
+    }
+
+    public static void sort(long[] array, ISortingAlgorithm algorithm, SortController controller)
+            throws InterruptedException {
+        long[] bits = array.clone();
+        if (sortBits(bits, algorithm, controller)) {
+            System.arraycopy(bits, 0, array, 0, array.length);
+        }
+    }
+
+    public static void sort(double[] array, ISortingAlgorithm algorithm, SortController controller)
+            throws InterruptedException {
+        long[] bits = new long[array.length];
+        for (int i = 0; i < array.length; i++) {
+            bits[i] = sortableBits(array[i]);
+        }
+        if (sortBits(bits, algorithm, controller)) {
+            for (int i = 0; i < array.length; i++) {
+                array[i] = fromSortableBits(bits[i]);
+            }
+        }
+    }
+
+    public static void sort(float[] array, ISortingAlgorithm algorithm, SortController controller)
+            throws InterruptedException {
+        // A float's sortable image is itself an int, so this takes at most two runs
+        long[] bits = new long[array.length];
+        for (int i = 0; i < array.length; i++) {
+            bits[i] = sortableBits(array[i]);
+        }
+        if (sortBits(bits, algorithm, controller)) {
+            for (int i = 0; i < array.length; i++) {
+                array[i] = fromSortableBits((int) bits[i]);
+            }
+        }
+    }
+
+    public static <T> void sortByIntKey(T[] records, ToIntFunction<? super T> key, ISortingAlgorithm algorithm,
+            SortController controller) throws InterruptedException {
+        long[] bits = new long[records.length];
+        for (int i = 0; i < records.length; i++) {
+            bits[i] = key.applyAsInt(records[i]);
+        }
+        sortRecords(records, bits, algorithm, controller);
+    }
+
+    public static <T> void sortByLongKey(T[] records, ToLongFunction<? super T> key, ISortingAlgorithm algorithm,
+            SortController controller) throws InterruptedException {
+        long[] bits = new long[records.length];
+        for (int i = 0; i < records.length; i++) {
+            bits[i] = key.applyAsLong(records[i]);
+        }
+        sortRecords(records, bits, algorithm, controller);
+    }
+
+    public static <T> void sortByDoubleKey(T[] records, ToDoubleFunction<? super T> key,
+            ISortingAlgorithm algorithm, SortController controller) throws InterruptedException {
+        long[] bits = new long[records.length];
+        for (int i = 0; i < records.length; i++) {
+            bits[i] = sortableBits(key.applyAsDouble(records[i]));
+        }
+        sortRecords(records, bits, algorithm, controller);
+    }
+
+    private static <T> void sortRecords(T[] records, long[] bits, ISortingAlgorithm algorithm,
+            SortController controller) throws InterruptedException {
+        int n = records.length;
+        if (n == 0)
+            return;
+        long min = bits[0];
+        long max = bits[0];
+        for (long b : bits) {
+            min = Math.min(min, b);
+            max = Math.max(max, b);
+        }
+
+        int[] keys = new int[n];
+        int[] order = null;
+        long range = max - min;
+        if (range >= 0 && range < (1 << MAX_KEY_BITS) / n) {
+            // (key - min) * n + index is unique and orders by key, then input position
+            for (int i = 0; i < n; i++) {
+                keys[i] = (int) (bits[i] - min) * n + i;
+            }
+            algorithm.runSort(keys, controller);
+            if (controller.isCancelled())
+                return;
+        } else {
+            order = sortedOrder(bits, min, width(min, max), algorithm, controller);
+            if (order == null)
+                return;
+        }
+
+        T[] sorted = records.clone();
+        for (int k = 0; k < n; k++) {
+            sorted[k] = records[order == null ? keys[k] % n : order[k]];
+        }
+        System.arraycopy(sorted, 0, records, 0, n);
+    }
+
+    // Sorts 64-bit images in place; returns false, leaving them untouched, if the run was cancelled
+    private static boolean sortBits(long[] bits, ISortingAlgorithm algorithm, SortController controller)
+            throws InterruptedException {
+        int n = bits.length;
+        if (n == 0)
+            return true;
+        long min = bits[0];
+        long max = bits[0];
+        for (long b : bits) {
+            min = Math.min(min, b);
+            max = Math.max(max, b);
+        }
+        int width = width(min, max);
+        if (width <= MAX_KEY_BITS) {
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = (int) (bits[i] - min);
+            }
+            algorithm.runSort(keys, controller);
+            if (controller.isCancelled())
+                return false;
+            for (int i = 0; i < n; i++) {
+                bits[i] = min + keys[i];
+            }
+            return true;
+        }
+        int[] order = sortedOrder(bits, min, width, algorithm, controller);
+        if (order == null)
+            return false;
+        long[] sorted = new long[n];
+        for (int k = 0; k < n; k++) {
+            sorted[k] = bits[order[k]];
+        }
+        System.arraycopy(sorted, 0, bits, 0, n);
+        return true;
+    }
+
+    // Bits in the offset of max from min, read as unsigned
+    private static int width(long min, long max) {
+        return Long.SIZE - Long.numberOfLeadingZeros(max - min);
+    }
+
+    /*
+     * The input positions of bits in sorted order, equal keys in input order,
+     * or null if cancelled. The offsets from min, width bits wide, are split
+     * into as few equal digits of at most MAX_KEY_BITS as cover them, and
+     * each digit takes a stable LSD run. A digit that is the same for every
+     * key is skipped.
+     */
+    private static int[] sortedOrder(long[] bits, long min, int width, ISortingAlgorithm algorithm,
+            SortController controller) throws InterruptedException {
+        int n = bits.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        int passes = (width + MAX_KEY_BITS - 1) / MAX_KEY_BITS;
+        int digitBits = (width + passes - 1) / passes;
+        int mask = (1 << digitBits) - 1;
+        int[] values = new int[n];
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * digitBits;
+            boolean same = true;
+            for (int k = 0; k < n; k++) {
+                values[k] = (int) ((bits[order[k]] - min) >>> shift) & mask;
+                same &= values[k] == values[0];
+            }
+            if (same)
+                continue;
+            int[] positions = stablePositions(values, algorithm, controller);
+            if (positions == null)
+                return null;
+            int[] next = new int[n];
+            for (int k = 0; k < n; k++) {
+                next[positions[k]] = order[k];
+            }
+            order = next;
+        }
+        return order;
+    }
+
+    /*
+     * Sorts a copy of values with the algorithm and returns the position each
+     * element lands on, equal values in input order, or null if cancelled.
+     * The start of each value's run in the sorted copy is looked up in an
+     * open-addressing table, so placing the elements makes no comparisons.
+     */
+    private static int[] stablePositions(int[] values, ISortingAlgorithm algorithm, SortController controller)
+            throws InterruptedException {
+        int n = values.length;
+        int[] sorted = values.clone();
+        algorithm.runSort(sorted, controller);
+        if (controller.isCancelled())
+            return null;
+
+        // At least twice as many slots as values, capped where an int[] still fits
+        int bits = Math.min(30, 33 - Integer.numberOfLeadingZeros(Math.max(1, n)));
+        int mask = (1 << bits) - 1;
+        int[] tableValues = new int[1 << bits];
+        // Next free position for the value in that slot, plus one; zero marks an empty slot
+        int[] tableNext = new int[1 << bits];
+        for (int k = 0; k < n; k++) {
+            if (k > 0 && sorted[k] == sorted[k - 1])
+                continue;
+            int slot = slot(sorted[k], bits);
+            while (tableNext[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            tableValues[slot] = sorted[k];
+            tableNext[slot] = k + 1;
+        }
+        int[] positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            int slot = slot(values[i], bits);
+            while (tableNext[slot] == 0 || tableValues[slot] != values[i]) {
+                slot = (slot + 1) & mask;
+            }
+            positions[i] = tableNext[slot]++ - 1;
+        }
+        return positions;
+    }
+
+    // Fibonacci hashing: the top bits of the product spread clustered keys
+    private static int slot(int value, int bits) {
+        return (value * 0x9E37_79B9) >>> (32 - bits);
+    }
+
+    // Order-preserving images: negative values have their magnitude bits flipped
+    private static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static double fromSortableBits(long bits) {
+        return Double.longBitsToDouble(bits ^ ((bits >> 63) & Long.MAX_VALUE));
+    }
+
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+    }
+
+    private static float fromSortableBits(int bits) {
+        return Float.intBitsToFloat(bits ^ ((bits >> 31) & Integer.MAX_VALUE));
+    }
+}
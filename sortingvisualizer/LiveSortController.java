@@ -0,0 +1,302 @@
+package sortingvisualizer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Controller for a sort that is shown while it runs.
+ *
+ * Every callback is counted and recorded into a {@link StepRing} that the
+ * frame callback drains with {@link #takeSteps()}. Compares, swaps and
+ * writes are paced by a {@link StepPacer} at the current speed. The sorting
+ * thread and the EDT never share a lock. When the renderer falls behind and
+ * the ring fills up, the {@link Backpressure} policy decides what the
+ * sorting thread does.
+ *
+ * The ring takes one producer at a time, so parallel workers record under a
+ * producer lock. The lock covers the counters, the ring and booking the
+ * pacer's next slot; waiting for that slot, or for room in a full ring, is
+ * done after releasing it, so paced workers sleep side by side rather than
+ * one after another. Both waits are managed blocks, so fork/join workers
+ * parked in them are compensated for rather than starving the pool.
+ */
+public class LiveSortController implements SortController {
+    public static final int DEFAULT_CAPACITY = 1 << 18;
+
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long PARK_NANOS = 100_000;
+
+    /** What the sorting thread does with a step when the ring is full. */
+    public enum Backpressure {
+        // Wait for the renderer; every step is shown
+        BLOCK("Block"),
+        // Drop compare, pivot and range highlights; array changes still wait
+        DROP_HIGHLIGHTS("Drop highlights"),
+        // Like DROP_HIGHLIGHTS, but the newest highlight is kept and shown once there is room
+        COALESCE("Coalesce");
+
+        private final String displayName;
+
+        Backpressure(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private final StepPacer pacer;
+    private final Backpressure backpressure;
+    private final StepRing ring;
+    // Consumer side only: refilled from the ring on every takeSteps()
+    private final StepBuffer drainSteps = new StepBuffer();
+
+    // Serialises the producers: the counters, the ring's producer side and the held highlight
+    private final Object producerLock = new Object();
+
+    // Producer side only; written under producerLock, read by the EDT
+    private volatile long comparisons = 0;
+    private volatile long swaps = 0;
+    private volatile long droppedSteps = 0;
+    private volatile boolean cancelled = false;
+
+    // The highlight held back under COALESCE; guarded by producerLock
+    private boolean heldHighlight;
+    private SortStep.StepType heldType;
+    private int heldIndex1, heldIndex2, heldValue;
+
+    // stepsPerSecond is read on every paced step, so it can follow a speed slider
+    public LiveSortController(DoubleSupplier stepsPerSecond) {
+        this(stepsPerSecond, Backpressure.BLOCK, DEFAULT_CAPACITY);
+    }
+
+    public LiveSortController(DoubleSupplier stepsPerSecond, Backpressure backpressure, int capacity) {
+        this.pacer = new StepPacer(stepsPerSecond, () -> cancelled);
+        this.backpressure = backpressure;
+        this.ring = new StepRing(capacity);
+    }
+
+    /**
+     * Returns every step recorded since the previous call. The buffer stays
+     * valid until the next call, which clears and reuses it.
+     */
+    public StepBuffer takeSteps() {
+        drainSteps.clear();
+        ring.drainTo(drainSteps);
+        return drainSteps;
+    }
+
+    public void discardSteps() {
+        ring.clear();
+    }
+
+    // Stops the run at its next callback; steps recorded after this are dropped
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getSwaps() {
+        return swaps;
+    }
+
+    // Highlights left out because the ring was full
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+
+    // Steps that only move highlights; clearing them is kept so a run never ends with stale ones
+    private static boolean isHighlight(SortStep.StepType type) {
+        return type == SortStep.StepType.COMPARE || type == SortStep.StepType.PIVOT
+                || type == SortStep.StepType.SUB_ARRAY || type == SortStep.StepType.WORKER_RANGE;
+    }
+
+    private void record(SortStep.StepType type, int idx1, int idx2, int value, boolean paced)
+            throws InterruptedException {
+        long wait;
+        synchronized (producerLock) {
+            if (type == SortStep.StepType.COMPARE) {
+                comparisons++;
+            } else if (type == SortStep.StepType.SWAP) {
+                swaps++;
+            }
+            wait = offerAndSchedule(type, idx1, idx2, value, paced);
+        }
+
+        // Under BLOCK a full ring waits for the renderer, without the lock so other workers are not held up
+        int spins = 0;
+        while (wait < 0 && ++spins < SPINS_BEFORE_PARK) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            Thread.onSpinWait();
+            synchronized (producerLock) {
+                wait = offerAndSchedule(type, idx1, idx2, value, paced);
+            }
+        }
+        if (wait < 0) {
+            RingSpace space = new RingSpace(type, idx1, idx2, value, paced);
+            ForkJoinPool.managedBlock(space);
+            wait = space.wait;
+        }
+        pacer.await(wait);
+    }
+
+    // Caller holds producerLock. Returns the pacer wait for a recorded step, or -1 if the ring is full
+    private long offerAndSchedule(SortStep.StepType type, int idx1, int idx2, int value, boolean paced) {
+        if (!offer(type, idx1, idx2, value))
+            return -1;
+        return paced ? pacer.schedule() : 0;
+    }
+
+    // Parks until a step that found the ring full is recorded
+    private final class RingSpace implements ForkJoinPool.ManagedBlocker {
+        private final SortStep.StepType type;
+        private final int idx1, idx2, value;
+        private final boolean paced;
+        long wait = -1;
+
+        RingSpace(SortStep.StepType type, int idx1, int idx2, int value, boolean paced) {
+            this.type = type;
+            this.idx1 = idx1;
+            this.idx2 = idx2;
+            this.value = value;
+            this.paced = paced;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            while (!isReleasable()) {
+                LockSupport.parkNanos(PARK_NANOS);
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+            }
+            return true;
+        }
+
+        // Tries to record the step, like ReentrantLock.tryLock in the ManagedBlocker example
+        @Override
+        public boolean isReleasable() {
+            if (wait < 0) {
+                synchronized (producerLock) {
+                    wait = offerAndSchedule(type, idx1, idx2, value, paced);
+                }
+            }
+            return wait >= 0;
+        }
+    }
+
+    // Caller holds producerLock. Returns false only if the step has to wait for room in the ring
+    private boolean offer(SortStep.StepType type, int idx1, int idx2, int value) {
+        // A cancelled run may still be unwinding; keep it out of the next run's frames
+        if (cancelled)
+            return true;
+        if (heldHighlight) {
+            heldHighlight = false;
+            // Still no room: the step being recorded supersedes the held highlight
+            if (!ring.offer(heldType, heldIndex1, heldIndex2, heldValue, comparisons, swaps)) {
+                droppedSteps++;
+            }
+        }
+        if (ring.offer(type, idx1, idx2, value, comparisons, swaps))
+            return true;
+
+        if (isHighlight(type) && backpressure != Backpressure.BLOCK) {
+            if (backpressure == Backpressure.COALESCE) {
+                heldHighlight = true;
+                heldType = type;
+                heldIndex1 = idx1;
+                heldIndex2 = idx2;
+                heldValue = value;
+            } else {
+                droppedSteps++;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void compare(int idx1, int idx2) throws InterruptedException {
+        record(SortStep.StepType.COMPARE, idx1, idx2, 0, true);
+    }
+
+    @Override
+    public void swap(int idx1, int idx2) throws InterruptedException {
+        record(SortStep.StepType.SWAP, idx1, idx2, 0, true);
+    }
+
+    @Override
+    public void setValue(int index, int value) throws InterruptedException {
+        record(SortStep.StepType.SET_VALUE, index, -1, value, true);
+    }
+
+    @Override
+    public void markSorted(int index) throws InterruptedException {
+        record(SortStep.StepType.MARK_SORTED, index, -1, 0, false);
+    }
+
+    // One step for the whole range, so a finished run does not flood the ring
+    @Override
+    public void markSorted(int start, int end) throws InterruptedException {
+        if (start <= end) {
+            record(SortStep.StepType.MARK_SORTED, start, end, 0, false);
+        }
+    }
+
+    @Override
+    public void clearHighlights() throws InterruptedException {
+        record(SortStep.StepType.CLEAR_HIGHLIGHTS, -1, -1, 0, false);
+    }
+
+    @Override
+    public void pivot(int index) throws InterruptedException {
+        record(SortStep.StepType.PIVOT, index, -1, 0, false);
+    }
+
+    @Override
+    public void subArray(int start, int end) throws InterruptedException {
+        record(SortStep.StepType.SUB_ARRAY, start, end, 0, false);
+    }
+
+    @Override
+    public void workerRange(int lane, int start, int end) throws InterruptedException {
+        record(SortStep.StepType.WORKER_RANGE, start, end, lane, false);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public void addComparison() {
+        synchronized (producerLock) {
+            comparisons++;
+        }
+    }
+
+    @Override
+    public void addComparisons(long count) {
+        synchronized (producerLock) {
+            comparisons += count;
+        }
+    }
+
+    @Override
+    public void addSwap() {
+        synchronized (producerLock) {
+            swaps++;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package sortingvisualizer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps a controller and measures what the run costs beyond the two
+ * step counters: array writes, how far each access jumps from the previous
+ * one (and how many jumps leave a cache line), bytes allocated by the sorting
+ * thread, wall time and operations per second.
+ *
+ * Counts are split into phases wherever the algorithm reports
+ * {@link #phaseCompleted}; whatever is left, or the whole run for algorithms
+ * without phases, becomes a phase named "sort". {@link #start()} and
+ * {@link #finish()} must be called on the sorting thread around the run;
+ * allocation is measured for that thread only, so work done by parallel
+ * workers is not included. {@link #snapshot()} may be called from any
+ * thread while the sort runs.
+ *
+ * The counters are updated under this object's lock and the event is
+ * passed on after releasing it, so the wrapper is as thread-safe as its
+ * delegate and adds no lock around the delegate's own work.
+ */
+public class MetricsController implements SortController {
+    // 64-byte cache lines hold 16 ints
+    static final int CACHE_LINE_INTS = 16;
+
+    private static final String REMAINDER_PHASE = "sort";
+
+    private final SortController delegate;
+    private final String algorithm;
+    private final int size;
+
+    // Running totals, written under this and read by snapshot()
+    private volatile long comparisons, swaps, writes, accesses, distance, farAccesses;
+    private int lastIndex = -1;
+
+    // Totals and clock at the last phase boundary, guarded by this
+    private final List<CostMetrics.Phase> phases = new ArrayList<>();
+    private long markComparisons, markSwaps, markWrites, markAccesses, markDistance, markFar;
+    private long markNanos, markAllocated;
+    private long threadId = -1;
+    private boolean finished;
+
+    public MetricsController(SortController delegate, String algorithm, int size) {
+        this.delegate = delegate;
+        this.algorithm = algorithm;
+        this.size = size;
+    }
+
+    public synchronized void start() {
+        threadId = Thread.currentThread().getId();
+        markNanos = System.nanoTime();
+        markAllocated = allocatedBytes(threadId);
+    }
+
+    // Closes the remaining counts as the last phase
+    public synchronized void finish() {
+        if (finished)
+            return;
+        if (phases.isEmpty() || comparisons + swaps + writes > markComparisons + markSwaps + markWrites) {
+            phases.add(phase(REMAINDER_PHASE, System.nanoTime() - markNanos));
+        }
+        finished = true;
+    }
+
+    // Every completed phase, plus the one in progress while the sort runs
+    public synchronized CostMetrics snapshot() {
+        List<CostMetrics.Phase> result = new ArrayList<>(phases);
+        if (!finished && threadId >= 0) {
+            result.add(phase(REMAINDER_PHASE, System.nanoTime() - markNanos));
+        }
+        return new CostMetrics(algorithm, size, result);
+    }
+
+    private CostMetrics.Phase phase(String name, long nanos) {
+        long allocated = allocatedBytes(threadId);
+        return new CostMetrics.Phase(name, nanos, comparisons - markComparisons, swaps - markSwaps,
+                writes - markWrites, accesses - markAccesses, distance - markDistance, farAccesses - markFar,
+                allocated < 0 || markAllocated < 0 ? -1 : allocated - markAllocated);
+    }
+
+    private static long allocatedBytes(long threadId) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threadId < 0 || !(threads instanceof com.sun.management.ThreadMXBean))
+            return -1;
+        return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threadId);
+    }
+
+    private void access(int index) {
+        if (lastIndex >= 0) {
+            long jump = Math.abs((long) index - lastIndex);
+            distance += jump;
+            if (jump > CACHE_LINE_INTS) {
+                farAccesses++;
+            }
+        }
+        accesses++;
+        lastIndex = index;
+    }
+
+    @Override
+    public void compare(int idx1, int idx2) throws InterruptedException {
+        synchronized (this) {
+            comparisons++;
+            access(idx1);
+            access(idx2);
+        }
+        delegate.compare(idx1, idx2);
+    }
+
+    @Override
+    public void swap(int idx1, int idx2) throws InterruptedException {
+        synchronized (this) {
+            swaps++;
+            writes += 2;
+            access(idx1);
+            access(idx2);
+        }
+        delegate.swap(idx1, idx2);
+    }
+
+    @Override
+    public void setValue(int index, int value) throws InterruptedException {
+        synchronized (this) {
+            writes++;
+            access(index);
+        }
+        delegate.setValue(index, value);
+    }
+
+    @Override
+    public void markSorted(int index) throws InterruptedException {
+        delegate.markSorted(index);
+    }
+
+    @Override
+    public void markSorted(int start, int end) throws InterruptedException {
+        delegate.markSorted(start, end);
+    }
+
+    @Override
+    public void clearHighlights() throws InterruptedException {
+        delegate.clearHighlights();
+    }
+
+    @Override
+    public void pivot(int index) throws InterruptedException {
+        delegate.pivot(index);
+    }
+
+    @Override
+    public void subArray(int start, int end) throws InterruptedException {
+        delegate.subArray(start, end);
+    }
+
+    @Override
+    public void workerRange(int lane, int start, int end) throws InterruptedException {
+        delegate.workerRange(lane, start, end);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return delegate.isCancelled();
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return delegate.isThreadSafe();
+    }
+
+    @Override
+    public void phaseCompleted(String phase, long nanos) {
+        synchronized (this) {
+            if (!finished) {
+                phases.add(phase(phase, nanos));
+                markComparisons = comparisons;
+                markSwaps = swaps;
+                markWrites = writes;
+                markAccesses = accesses;
+                markDistance = distance;
+                markFar = farAccesses;
+                markNanos = System.nanoTime();
+                markAllocated = allocatedBytes(threadId);
+            }
+        }
+        delegate.phaseCompleted(phase, nanos);
+    }
+
+    @Override
+    public void addComparison() {
+        synchronized (this) {
+            comparisons++;
+        }
+        delegate.addComparison();
+    }
+
+    @Override
+    public void addComparisons(long count) {
+        synchronized (this) {
+            comparisons += count;
+        }
+        delegate.addComparisons(count);
+    }
+
+    @Override
+    public void addSwap() {
+        synchronized (this) {
+            swaps++;
+            writes += 2;
+        }
+        delegate.addSwap();
+    }
+}
@@ -0,0 +1,136 @@
+package sortingvisualizer;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Live table of a run's {@link CostMetrics}: one row per phase and a total,
+ * with an export to CSV or JSON (chosen by the file extension).
+ */
+public class MetricsPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLUMNS = { "Phase", "Time (ms)", "Compares", "Swaps", "Writes", "Ops/s",
+            "Mean jump", "Far jumps", "Allocated" };
+
+    private final MetricsTableModel model = new MetricsTableModel();
+    private final JButton exportButton = new JButton("Export Metrics...");
+    private CostMetrics metrics;
+
+    public MetricsPanel() {
+        super(new BorderLayout(5, 0));
+        setBackground(new Color(30, 30, 30)); // Dark Gray
+        setBorder(BorderFactory.createEmptyBorder(5, 5, 0, 5));
+
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        table.setBackground(new Color(45, 45, 45));
+        table.setForeground(Color.WHITE);
+        table.setGridColor(new Color(60, 60, 60));
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setPreferredSize(new Dimension(800, 100));
+        add(scrollPane, BorderLayout.CENTER);
+
+        exportButton.setFocusPainted(false);
+        exportButton.setEnabled(false);
+        exportButton.addActionListener(e -> export());
+        add(exportButton, BorderLayout.EAST);
+    }
+
+    public void showMetrics(CostMetrics metrics) {
+        this.metrics = metrics;
+        model.setRows(metrics);
+        exportButton.setEnabled(metrics != null);
+    }
+
+    private void export() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("metrics.csv"));
+        if (metrics == null || chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION)
+            return;
+        Path path = chooser.getSelectedFile().toPath();
+        String text = path.getFileName().toString().toLowerCase().endsWith(".json") ? metrics.toJson()
+                : metrics.toCsv();
+        try {
+            Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not export metrics: " + e.getMessage(), "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private static String bytes(long bytes) {
+        if (bytes < 0)
+            return "n/a";
+        if (bytes >= 1 << 20)
+            return String.format("%.1f MB", bytes / (double) (1 << 20));
+        if (bytes >= 1 << 10)
+            return String.format("%.1f KB", bytes / 1024.0);
+        return bytes + " B";
+    }
+
+    private static final class MetricsTableModel extends AbstractTableModel {
+        private static final long serialVersionUID = 1L;
+
+        private final List<CostMetrics.Phase> rows = new ArrayList<>();
+
+        void setRows(CostMetrics metrics) {
+            rows.clear();
+            if (metrics != null) {
+                rows.addAll(metrics.getPhases());
+                if (metrics.getPhases().size() > 1) {
+                    rows.add(metrics.total());
+                }
+            }
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            CostMetrics.Phase p = rows.get(row);
+            switch (column) {
+                case 0:
+                    return p.getName();
+                case 1:
+                    return String.format("%.1f", p.getNanos() / 1e6);
+                case 2:
+                    return p.getComparisons();
+                case 3:
+                    return p.getSwaps();
+                case 4:
+                    return p.getWrites();
+                case 5:
+                    return p.getOpsPerSecond() > 0 ? StepPacer.describe(p.getOpsPerSecond()) : "-";
+                case 6:
+                    return String.format("%.1f", p.getMeanDistance());
+                case 7:
+                    return p.getFarAccesses();
+                default:
+                    return bytes(p.getAllocatedBytes());
+            }
+        }
+    }
+}
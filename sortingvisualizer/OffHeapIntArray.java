@@ -0,0 +1,46 @@
+package sortingvisualizer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * An {@link IntArray} in direct memory, split into segments of 2^27 ints
+ * (512 MB) because a single buffer is int-indexed by bytes. Elements are in
+ * native byte order. The memory is released when the array is collected.
+ */
+public final class OffHeapIntArray implements IntArray {
+    private static final int SEGMENT_BITS = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    private final long length;
+    private final IntBuffer[] segments;
+
+    public OffHeapIntArray(long length) {
+        if (length < 0)
+            throw new IllegalArgumentException("Negative length: " + length);
+        this.length = length;
+        int count = (int) ((length + SEGMENT_MASK) >>> SEGMENT_BITS);
+        segments = new IntBuffer[count];
+        for (int s = 0; s < count; s++) {
+            long size = Math.min(1L << SEGMENT_BITS, length - ((long) s << SEGMENT_BITS));
+            segments[s] = ByteBuffer.allocateDirect((int) size * Integer.BYTES).order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+        }
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public int get(long index) {
+        return segments[(int) (index >>> SEGMENT_BITS)].get((int) (index & SEGMENT_MASK));
+    }
+
+    @Override
+    public void set(long index, int value) {
+        segments[(int) (index >>> SEGMENT_BITS)].put((int) (index & SEGMENT_MASK), value);
+    }
+}
@@ -0,0 +1,129 @@
+package sortingvisualizer;
+
+/**
+ * SortController that records every event into a {@link StepBuffer} without
+ * sleeping, mirroring the work the GUI controller does on the sort thread.
+ *
+ * When the buffer reaches {@code batchSize} steps it is handed to
+ * {@link #flush(StepBuffer)}, which by default just clears it. This keeps
+ * memory bounded on large inputs while still paying the full recording cost.
+ */
+public class RecordingController implements SortController {
+    private static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private final StepBuffer steps;
+    private final int batchSize;
+    private long comparisons = 0;
+    private long swaps = 0;
+
+    public RecordingController() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    public RecordingController(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+        this.steps = new StepBuffer(this.batchSize);
+    }
+
+    private void record(SortStep.StepType type, int idx1, int idx2, int value) {
+        steps.add(type, idx1, idx2, value, comparisons, swaps);
+        if (steps.size() >= batchSize) {
+            flush(steps);
+        }
+    }
+
+    // Called with a full batch; subclasses may consume the steps before they are discarded
+    protected void flush(StepBuffer batch) {
+        batch.clear();
+    }
+
+    @Override
+    public void compare(int idx1, int idx2) {
+        comparisons++;
+        record(SortStep.StepType.COMPARE, idx1, idx2, 0);
+    }
+
+    @Override
+    public void swap(int idx1, int idx2) {
+        swaps++;
+        record(SortStep.StepType.SWAP, idx1, idx2, 0);
+    }
+
+    @Override
+    public void setValue(int index, int value) {
+        record(SortStep.StepType.SET_VALUE, index, -1, value);
+    }
+
+    @Override
+    public void markSorted(int index) {
+        record(SortStep.StepType.MARK_SORTED, index, -1, 0);
+    }
+
+    @Override
+    public void markSorted(int start, int end) {
+        if (start <= end) {
+            record(SortStep.StepType.MARK_SORTED, start, end, 0);
+        }
+    }
+
+    @Override
+    public void clearHighlights() {
+        record(SortStep.StepType.CLEAR_HIGHLIGHTS, -1, -1, 0);
+    }
+
+    @Override
+    public void pivot(int index) {
+        record(SortStep.StepType.PIVOT, index, -1, 0);
+    }
+
+    @Override
+    public void subArray(int start, int end) {
+        record(SortStep.StepType.SUB_ARRAY, start, end, 0);
+    }
+
+    @Override
+    public void workerRange(int lane, int start, int end) {
+        record(SortStep.StepType.WORKER_RANGE, start, end, lane);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public void addComparison() {
+        comparisons++;
+    }
+
+    @Override
+    public void addComparisons(long count) {
+        comparisons += count;
+    }
+
+    @Override
+    public void addSwap() {
+        swaps++;
+    }
+
+    // Flushes whatever is left of the current batch
+    public void finish() {
+        if (!steps.isEmpty()) {
+            flush(steps);
+        }
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getSwaps() {
+        return swaps;
+    }
+
+    public void reset() {
+        steps.clear();
+        comparisons = 0;
+        swaps = 0;
+    }
+}
@@ -0,0 +1,240 @@
+package sortingvisualizer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Plays back a recorded trace in its own window. Playback speed is given in
+ * events per frame; the timeline slider and the step buttons move to any
+ * point of the run, backwards as well as forwards (see {@link Timeline}).
+ * The timeline's checkpoints are built on a background thread when the
+ * window opens; until then the slider only reaches the indexed part.
+ */
+public class ReplayWindow extends JFrame {
+    private static final long serialVersionUID = 1L;
+
+    private static final int TIMELINE_STEPS = 1000;
+
+    private final TraceReader reader;
+    private final SortPanel sortPanel = new SortPanel();
+    private final Timeline timeline;
+    private final FrameScheduler frameScheduler = new FrameScheduler(this::renderFrame);
+    private final SwingWorker<Void, Void> indexer;
+
+    private JButton playButton;
+    private JSpinner speedSpinner;
+    private JSlider timelineSlider;
+    private JLabel positionLabel;
+    private JLabel comparisonsLabel;
+    private JLabel swapsLabel;
+
+    private boolean playing = false;
+    private boolean updatingTimeline = false;
+
+    public ReplayWindow(Path path) throws IOException {
+        reader = new TraceReader(path);
+        setTitle("Replay: " + reader.getAlgorithmName() + " (" + path.getFileName() + ")");
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        try {
+            timeline = new Timeline(reader, sortPanel);
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+        add(sortPanel, BorderLayout.CENTER);
+        add(createControlPanel(), BorderLayout.SOUTH);
+
+        indexer = new SwingWorker<>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                try (TraceReader source = new TraceReader(path)) {
+                    timeline.buildCheckpoints(source, this::isCancelled);
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                } catch (Exception e) {
+                    if (!isCancelled()) {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        showError(cause instanceof IOException ? (IOException) cause : new IOException(cause));
+                    }
+                }
+                updateLabels();
+            }
+        };
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                indexer.cancel(false);
+                frameScheduler.stop();
+                try {
+                    reader.close();
+                } catch (IOException ignored) {
+                    // Nothing left to do with a trace we are discarding
+                }
+            }
+        });
+
+        updateLabels();
+        pack();
+        setMinimumSize(new Dimension(800, 500));
+        setLocationRelativeTo(null);
+        setVisible(true);
+        indexer.execute();
+        frameScheduler.start();
+    }
+
+    private JPanel createControlPanel() {
+        JPanel controlPanel = new JPanel(new GridBagLayout());
+        controlPanel.setBackground(new Color(30, 30, 30)); // Dark Gray
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.gridwidth = 4;
+        timelineSlider = new JSlider(0, TIMELINE_STEPS, 0);
+        timelineSlider.setBackground(new Color(30, 30, 30));
+        timelineSlider.addChangeListener(e -> {
+            if (!updatingTimeline && !timelineSlider.getValueIsAdjusting()) {
+                // Past the indexed part a jump would replay on the EDT, so it stops at its end
+                seekTo(Math.min(timeline.builtLength(),
+                        reader.getEventCount() * timelineSlider.getValue() / TIMELINE_STEPS));
+            }
+        });
+        controlPanel.add(timelineSlider, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 1;
+        gbc.gridwidth = 1;
+        playButton = new JButton("Play");
+        playButton.setBackground(new Color(46, 204, 113)); // Green
+        playButton.setForeground(Color.WHITE);
+        playButton.setFocusPainted(false);
+        playButton.addActionListener(e -> setPlaying(!playing));
+        controlPanel.add(playButton, gbc);
+
+        gbc.gridx = 1;
+        gbc.gridy = 1;
+        gbc.gridwidth = 1;
+        JButton stepBackButton = new JButton("< Step");
+        stepBackButton.setFocusPainted(false);
+        stepBackButton.addActionListener(e -> {
+            setPlaying(false);
+            seekTo(timeline.position() - stepSize());
+        });
+        controlPanel.add(stepBackButton, gbc);
+
+        gbc.gridx = 2;
+        gbc.gridy = 1;
+        gbc.gridwidth = 1;
+        JButton stepButton = new JButton("Step >");
+        stepButton.setFocusPainted(false);
+        stepButton.addActionListener(e -> {
+            setPlaying(false);
+            seekTo(timeline.position() + stepSize());
+        });
+        controlPanel.add(stepButton, gbc);
+
+        gbc.gridx = 3;
+        gbc.gridy = 1;
+        gbc.gridwidth = 1;
+        JPanel speedPanel = new JPanel(new BorderLayout(5, 0));
+        speedPanel.setOpaque(false);
+        JLabel speedLabel = new JLabel("Events/frame:");
+        speedLabel.setForeground(Color.WHITE);
+        speedPanel.add(speedLabel, BorderLayout.WEST);
+        speedSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 10_000_000, 1));
+        speedPanel.add(speedSpinner, BorderLayout.CENTER);
+        controlPanel.add(speedPanel, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        gbc.gridwidth = 2;
+        positionLabel = new JLabel();
+        positionLabel.setForeground(Color.WHITE);
+        controlPanel.add(positionLabel, gbc);
+
+        gbc.gridx = 2;
+        gbc.gridy = 2;
+        gbc.gridwidth = 1;
+        comparisonsLabel = new JLabel();
+        comparisonsLabel.setForeground(Color.WHITE);
+        controlPanel.add(comparisonsLabel, gbc);
+
+        gbc.gridx = 3;
+        gbc.gridy = 2;
+        gbc.gridwidth = 1;
+        swapsLabel = new JLabel();
+        swapsLabel.setForeground(Color.WHITE);
+        controlPanel.add(swapsLabel, gbc);
+
+        return controlPanel;
+    }
+
+    private void setPlaying(boolean playing) {
+        this.playing = playing && reader.hasNext();
+        playButton.setText(this.playing ? "Pause" : "Play");
+    }
+
+    // The step buttons move by the playback speed, so one click matches one frame
+    private int stepSize() {
+        return (Integer) speedSpinner.getValue();
+    }
+
+    private void renderFrame() {
+        if (!playing) {
+            if (!indexer.isDone())
+                updateLabels();
+            return;
+        }
+        try {
+            timeline.advance(stepSize());
+        } catch (IOException e) {
+            showError(e);
+            setPlaying(false);
+        }
+        if (!reader.hasNext()) {
+            setPlaying(false);
+        }
+        updateLabels();
+    }
+
+    private void seekTo(long event) {
+        try {
+            timeline.seek(event);
+        } catch (IOException e) {
+            showError(e);
+        }
+        updateLabels();
+    }
+
+    private void updateLabels() {
+        long total = reader.getEventCount();
+        long indexed = timeline.builtLength();
+        positionLabel.setText("Event " + reader.position() + " / " + total
+                + (indexed < total ? " (indexed to " + indexed + ")" : ""));
+        comparisonsLabel.setText("Comparisons: " + reader.getComparisons());
+        swapsLabel.setText("Swaps: " + reader.getSwaps());
+        updatingTimeline = true;
+        timelineSlider.setValue(total == 0 ? 0 : (int) (reader.position() * TIMELINE_STEPS / total));
+        updatingTimeline = false;
+    }
+
+    private void showError(IOException e) {
+        JOptionPane.showMessageDialog(this, "Could not read trace: " + e.getMessage(), "Replay",
+                JOptionPane.ERROR_MESSAGE);
+    }
+}
@@ -0,0 +1,65 @@
+package sortingvisualizer;
+
+/**
+ * Plain Java {@link SortKernels}. Partition and merge choose between two
+ * values with conditional expressions rather than if-statements, so the JIT
+ * emits conditional moves and random input does not mispredict. The column
+ * loop is simple enough for the JIT to vectorise on its own.
+ */
+public final class ScalarSortKernels implements SortKernels {
+    public static final ScalarSortKernels INSTANCE = new ScalarSortKernels();
+
+    private ScalarSortKernels() {
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    /*
+     * Every element is written to both ends of scratch and only the matching
+     * end advances; the other write lands in a free slot that a later element
+     * overwrites.
+     */
+    @Override
+    public int partition(int[] array, int from, int to, int pivot, int[] scratch) {
+        int left = 0, right = to - from;
+        for (int i = from; i < to; i++) {
+            int x = array[i];
+            int less = x < pivot ? 1 : 0;
+            scratch[left] = x;
+            scratch[right - 1] = x;
+            left += less;
+            right -= 1 - less;
+        }
+        System.arraycopy(scratch, 0, array, from, to - from);
+        return from + left;
+    }
+
+    @Override
+    public void merge(int[] src, int lo, int mid, int hi, int[] dst) {
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            int x = src[i], y = src[j];
+            int left = x <= y ? 1 : 0;
+            dst[k++] = left != 0 ? x : y;
+            i += left;
+            j += 1 - left;
+        }
+        System.arraycopy(src, i, dst, k, mid - i);
+        System.arraycopy(src, j, dst, k + mid - i, hi - j);
+    }
+
+    @Override
+    public void sortColumns(int[] columns, int width, SortingNetwork network) {
+        for (int c = 0; c < network.getComparatorCount(); c++) {
+            int i = network.getLow(c) * width, j = network.getHigh(c) * width;
+            for (int a = 0; a < width; a++) {
+                int x = columns[i + a], y = columns[j + a];
+                columns[i + a] = Math.min(x, y);
+                columns[j + a] = Math.max(x, y);
+            }
+        }
+    }
+}
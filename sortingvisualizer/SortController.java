@@ -9,17 +9,43 @@ public interface SortController {
 
     void markSorted(int index) throws InterruptedException;
 
+    // Marks start..end (inclusive) sorted; wrappers can pass the range on as one call
+    default void markSorted(int start, int end) throws InterruptedException {
+        for (int i = start; i <= end; i++)
+            markSorted(i);
+    }
+
     void clearHighlights() throws InterruptedException;
 
     void pivot(int index) throws InterruptedException;
 
     void subArray(int start, int end) throws InterruptedException;
 
+    // Range a parallel worker is currently processing; lane identifies the worker
+    default void workerRange(int lane, int start, int end) throws InterruptedException {
+        subArray(start, end);
+    }
+
     // Check if sorting is cancelled
     boolean isCancelled();
 
+    // Whether the controller may be called from several threads at once
+    default boolean isThreadSafe() {
+        return false;
+    }
+
+    // Wall time one phase of a multi-phase algorithm took; may be called once per pass
+    default void phaseCompleted(String phase, long nanos) {
+    }
+
     // Statistics
     void addComparison();
 
+    // Counts comparisons made in bulk, e.g. a branch-free block scan; sinks with a lock take it once
+    default void addComparisons(long count) {
+        for (long i = 0; i < count; i++)
+            addComparison();
+    }
+
     void addSwap();
 }
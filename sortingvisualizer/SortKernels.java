@@ -0,0 +1,64 @@
+package sortingvisualizer;
+
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Bulk int kernels for the inner loops that do not report steps: partition
+ * around a pivot, merging two sorted runs, and applying a
+ * {@link SortingNetwork} to columns of a transposed batch.
+ *
+ * {@link #get()} picks an implementation once per JVM. An accelerated one
+ * is found with {@link ServiceLoader}; the Vector API kernels in the
+ * {@code vector} module register themselves this way and load only when the
+ * JVM runs with {@code --add-modules jdk.incubator.vector}. Otherwise, or
+ * with {@code -Dsortingvisualizer.kernels=scalar}, the branch-free
+ * {@link ScalarSortKernels} are used.
+ */
+public interface SortKernels {
+    String KERNELS_PROPERTY = "sortingvisualizer.kernels";
+
+    // Shown in benchmark output, e.g. "scalar"
+    String getName();
+
+    /**
+     * Reorders array[from..to) so that every element less than pivot comes
+     * first and returns the index of the first element that is not. scratch
+     * must hold at least to - from elements. Not stable.
+     */
+    int partition(int[] array, int from, int to, int pivot, int[] scratch);
+
+    // Merges the sorted runs src[lo..mid) and src[mid..hi) into dst[lo..hi)
+    void merge(int[] src, int lo, int mid, int hi, int[] dst);
+
+    /**
+     * Applies the network's comparators to a transposed batch: element e of
+     * batch member a lives at columns[e * width + a].
+     */
+    void sortColumns(int[] columns, int width, SortingNetwork network);
+
+    static SortKernels get() {
+        return Selected.KERNELS;
+    }
+
+    /** The kernels chosen on first use. */
+    final class Selected {
+        static final SortKernels KERNELS = select();
+
+        private Selected() {
+        }
+
+        private static SortKernels select() {
+            if ("scalar".equals(System.getProperty(KERNELS_PROPERTY)))
+                return ScalarSortKernels.INSTANCE;
+            try {
+                for (SortKernels kernels : ServiceLoader.load(SortKernels.class)) {
+                    return kernels;
+                }
+            } catch (ServiceConfigurationError | LinkageError | UnsupportedOperationException e) {
+                // The module is missing or the CPU has too few lanes; the scalar kernels always work
+            }
+            return ScalarSortKernels.INSTANCE;
+        }
+    }
+}
@@ -3,12 +3,13 @@ package sortingvisualizer;
 import javax.swing.*;
 import java.awt.*;
 import java.util.Arrays;
+import java.util.BitSet;
 
-public class SortPanel extends JPanel {
+public class SortPanel extends JPanel implements BarRenderer.ColorModel {
     private static final long serialVersionUID = 1L;
 
     private int[] array;
-    private int barWidth;
+    private final BarRenderer renderer = new BarRenderer(this);
 
     // Indices for highlighting
     private int currentIndex = -1;
@@ -18,6 +19,11 @@ public class SortPanel extends JPanel {
     private int pivotIndex = -1; // For QuickSort
     private int subArrayStart = -1, subArrayEnd = -1; // For MergeSort focus
 
+    // Range each parallel worker is processing, indexed by lane; -1 when idle
+    private final int[] laneStart = new int[MAX_LANES];
+    private final int[] laneEnd = new int[MAX_LANES];
+    private int activeLanes = 0;
+
     private boolean[] isSorted;
 
     private static final Color BAR_COLOR = new Color(70, 130, 180); // Steel Blue
@@ -27,9 +33,21 @@ public class SortPanel extends JPanel {
     private static final Color PIVOT_COLOR = new Color(186, 85, 211); // Medium Orchid
     private static final Color SUB_ARRAY_COLOR = new Color(0, 255, 255); // Cyan
 
+    private static final int MAX_LANES = 64;
+    private static final Color[] LANE_COLORS = new Color[MAX_LANES];
+
+    static {
+        // Golden-ratio hue steps keep neighbouring lanes visually distinct
+        for (int i = 0; i < MAX_LANES; i++) {
+            LANE_COLORS[i] = Color.getHSBColor((i * 0.618034f) % 1f, 0.45f, 0.85f);
+        }
+    }
+
     public SortPanel() {
         setBackground(new Color(30, 30, 30)); // Dark Gray
         setPreferredSize(new Dimension(800, 400));
+        setOpaque(true);
+        clearWorkerRanges();
     }
 
     public void setArray(int[] array) {
@@ -39,10 +57,54 @@ public class SortPanel extends JPanel {
             Arrays.fill(this.isSorted, false);
         }
         resetHighlights();
+        clearWorkerRanges();
+        renderer.setArray(array);
+        repaint();
+    }
+
+    public int[] copyArray() {
+        return array == null ? null : array.clone();
+    }
+
+    public BitSet copySortedMarks() {
+        BitSet marks = new BitSet();
+        if (isSorted != null) {
+            for (int i = 0; i < isSorted.length; i++) {
+                if (isSorted[i])
+                    marks.set(i);
+            }
+        }
+        return marks;
+    }
+
+    /**
+     * Overwrites the bar values and sorted marks with a previously copied
+     * state of the same length. Highlights are cleared rather than restored.
+     */
+    public void restore(int[] values, BitSet sortedMarks) {
+        if (array == null || array.length != values.length) {
+            setArray(values.clone());
+        } else {
+            System.arraycopy(values, 0, array, 0, values.length);
+            resetHighlights();
+            clearWorkerRanges();
+            renderer.setArray(array);
+        }
+        for (int i = 0; i < isSorted.length; i++) {
+            isSorted[i] = sortedMarks.get(i);
+        }
         repaint();
     }
 
     public void resetHighlights() {
+        // Old highlights have to be painted back in their normal color
+        renderer.markDirty(currentIndex);
+        renderer.markDirty(comparingIndex);
+        renderer.markDirty(swapIndex1);
+        renderer.markDirty(swapIndex2);
+        renderer.markDirty(pivotIndex);
+        renderer.markDirty(subArrayStart, subArrayEnd);
+
         currentIndex = -1;
         comparingIndex = -1;
         swapIndex1 = -1;
@@ -53,35 +115,94 @@ public class SortPanel extends JPanel {
     }
 
     public void highlightCompare(int idx1, int idx2) {
+        setCompare(idx1, idx2);
+        repaint();
+    }
+
+    public void highlightSwap(int idx1, int idx2) {
+        setSwap(idx1, idx2);
+        repaint();
+    }
+
+    public void highlightPivot(int idx) {
+        setPivot(idx);
+        repaint();
+    }
+
+    public void highlightSubArray(int start, int end) {
+        setSubArray(start, end);
+        repaint();
+    }
+
+    private void setCompare(int idx1, int idx2) {
         resetHighlights();
         this.currentIndex = idx1;
         this.comparingIndex = idx2;
-        repaint();
+        renderer.markDirty(idx1);
+        renderer.markDirty(idx2);
     }
 
-    public void highlightSwap(int idx1, int idx2) {
+    private void setSwap(int idx1, int idx2) {
         resetHighlights();
         this.swapIndex1 = idx1;
         this.swapIndex2 = idx2;
-        repaint();
+        renderer.markDirty(idx1);
+        renderer.markDirty(idx2);
     }
 
-    public void highlightPivot(int idx) {
+    private void setPivot(int idx) {
         resetHighlights();
         this.pivotIndex = idx;
-        repaint();
+        renderer.markDirty(idx);
     }
 
-    public void highlightSubArray(int start, int end) {
+    private void setSubArray(int start, int end) {
         resetHighlights();
         this.subArrayStart = start;
         this.subArrayEnd = end;
+        renderer.markDirty(start, end);
+    }
+
+    public void highlightWorkerRange(int lane, int start, int end) {
+        setWorkerRange(lane, start, end);
         repaint();
     }
 
+    private void setWorkerRange(int lane, int start, int end) {
+        int slot = Math.floorMod(lane, MAX_LANES);
+        if (laneStart[slot] == -1 && start != -1) {
+            activeLanes++;
+        } else if (laneStart[slot] != -1 && start == -1) {
+            activeLanes--;
+        }
+        renderer.markDirty(laneStart[slot], laneEnd[slot]);
+        laneStart[slot] = start;
+        laneEnd[slot] = end;
+        renderer.markDirty(start, end);
+    }
+
+    public void clearWorkerRanges() {
+        for (int lane = 0; lane < MAX_LANES; lane++) {
+            renderer.markDirty(laneStart[lane], laneEnd[lane]);
+        }
+        Arrays.fill(laneStart, -1);
+        Arrays.fill(laneEnd, -1);
+        activeLanes = 0;
+    }
+
+    private Color laneColor(int from, int to) {
+        for (int lane = 0; lane < MAX_LANES; lane++) {
+            if (laneStart[lane] != -1 && from <= laneEnd[lane] && to > laneStart[lane]) {
+                return LANE_COLORS[lane];
+            }
+        }
+        return null;
+    }
+
     public void markAsSorted(int index) {
         if (isSorted != null && index >= 0 && index < isSorted.length) {
             isSorted[index] = true;
+            renderer.markDirty(index);
         }
         // No repaint here, often done in batch or after other highlights
     }
@@ -92,6 +213,7 @@ public class SortPanel extends JPanel {
                 if (i >= 0)
                     isSorted[i] = true;
             }
+            renderer.markDirty(Math.max(0, start), end);
         }
         // repaint(); // Let the caller decide when to repaint
     }
@@ -100,90 +222,206 @@ public class SortPanel extends JPanel {
         if (isSorted != null) {
             Arrays.fill(isSorted, false);
         }
+        renderer.markAllDirty();
         repaint();
     }
 
+    @Override
+    public Color barColor(int i) {
+        if (isSorted != null && isSorted[i]) {
+            return SORTED_COLOR;
+        } else if (i == pivotIndex) {
+            return PIVOT_COLOR;
+        } else if (i == swapIndex1 || i == swapIndex2) {
+            return SWAP_COLOR;
+        } else if (i == currentIndex || i == comparingIndex) {
+            return COMPARE_COLOR;
+        } else if (subArrayStart != -1 && i >= subArrayStart && i <= subArrayEnd) {
+            return SUB_ARRAY_COLOR;
+        }
+        Color laneColor = activeLanes > 0 ? laneColor(i, i + 1) : null;
+        return laneColor != null ? laneColor : BAR_COLOR;
+    }
+
+    /**
+     * A bucket shows its most interesting member: the active pivot, swap or
+     * comparison wins so highlights stay visible at any zoom level, and a
+     * bucket is only drawn as sorted once every element in it is.
+     */
+    @Override
+    public Color bucketColor(int from, int to) {
+        if (pivotIndex >= from && pivotIndex < to) {
+            return PIVOT_COLOR;
+        } else if ((swapIndex1 >= from && swapIndex1 < to) || (swapIndex2 >= from && swapIndex2 < to)) {
+            return SWAP_COLOR;
+        } else if ((currentIndex >= from && currentIndex < to) || (comparingIndex >= from && comparingIndex < to)) {
+            return COMPARE_COLOR;
+        } else if (isSorted != null && allSorted(from, to)) {
+            return SORTED_COLOR;
+        } else if (subArrayStart != -1 && from <= subArrayEnd && to > subArrayStart) {
+            return SUB_ARRAY_COLOR;
+        }
+        Color laneColor = activeLanes > 0 ? laneColor(from, to) : null;
+        return laneColor != null ? laneColor : BAR_COLOR;
+    }
+
+    private boolean allSorted(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isSorted[i])
+                return false;
+        }
+        return true;
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
         if (array == null || array.length == 0) {
+            super.paintComponent(g);
             g.setColor(Color.WHITE);
             g.drawString("Array is empty or not initialized.", getWidth() / 2 - 100, getHeight() / 2);
             return;
         }
+        // The renderer's image covers the whole panel, so no background fill is needed
+        renderer.paint((Graphics2D) g, getWidth(), getHeight(), getBackground(), getGraphicsConfiguration());
+    }
 
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-        int panelWidth = getWidth();
-        int panelHeight = getHeight();
-        barWidth = Math.max(1, panelWidth / array.length);
-        int maxVal = 0;
-        for (int val : array) {
-            if (val > maxVal)
-                maxVal = val;
-        }
-        if (maxVal == 0)
-            maxVal = 1; // Avoid division by zero for all zero array
-
-        for (int i = 0; i < array.length; i++) {
-            int barHeight = (int) (((double) array[i] / maxVal) * (panelHeight * 0.9));
-            int x = i * barWidth;
-            int y = panelHeight - barHeight;
-
-            if (isSorted != null && isSorted[i]) {
-                g2d.setColor(SORTED_COLOR);
-            } else if (i == pivotIndex) {
-                g2d.setColor(PIVOT_COLOR);
-            } else if (i == swapIndex1 || i == swapIndex2) {
-                g2d.setColor(SWAP_COLOR);
-            } else if (i == currentIndex || i == comparingIndex) {
-                g2d.setColor(COMPARE_COLOR);
-            } else if (subArrayStart != -1 && i >= subArrayStart && i <= subArrayEnd) {
-                g2d.setColor(SUB_ARRAY_COLOR);
-            } else {
-                g2d.setColor(BAR_COLOR);
-            }
-            g2d.fillRect(x, y, Math.max(1, barWidth - 1), barHeight);
-
-            if (barWidth > 25 && barHeight > 15 && array[i] > 0) { // Only draw if it fits and positive
-                g2d.setColor(Color.BLACK);
-                String valStr = String.valueOf(array[i]);
-                FontMetrics fm = g2d.getFontMetrics();
-                int stringX = x + (barWidth - 1 - fm.stringWidth(valStr)) / 2;
-                int stringY = y + fm.getAscent() + 2; // +2 for slight top margin
-                if (barHeight > fm.getHeight()) {
-                    g2d.drawString(valStr, stringX, stringY);
+    public void processStep(SortStep step) {
+        applyStep(step.getType(), step.getIndex1(), step.getIndex2(), step.getValue());
+        repaint();
+    }
+
+    /**
+     * Applies a whole batch of steps to the panel's own copy of the array and
+     * its highlight state, then repaints once. Only the state after the last
+     * step is drawn; sorted marks and bar values reflect every step.
+     */
+    public void processSteps(StepBuffer steps) {
+        applySteps(steps, null);
+        if (steps.size() > 0) {
+            repaint();
+        }
+    }
+
+    /**
+     * Applies a batch of steps without repainting. When {@code inverse} is
+     * not null, one entry is appended to it for every step that changed the
+     * array or a sorted mark, so {@link #undoSteps} can take the steps back.
+     * In an inverse log a SWAP swaps back, a SET_VALUE carries the old value
+     * and a MARK_SORTED clears the marks it set; a sorted range logs one entry
+     * per run of indices that were not marked before.
+     */
+    public void applySteps(StepBuffer steps, StepBuffer inverse) {
+        int count = steps.size();
+        for (int i = 0; i < count; i++) {
+            SortStep.StepType type = steps.getType(i);
+            int index1 = steps.getIndex1(i);
+            if (inverse != null && isValidIndex(index1)) {
+                long comparisons = steps.getComparisons(i);
+                long swaps = steps.getSwaps(i);
+                if (type == SortStep.StepType.SWAP && isValidIndex(steps.getIndex2(i))) {
+                    inverse.add(type, index1, steps.getIndex2(i), 0, comparisons, swaps);
+                } else if (type == SortStep.StepType.SET_VALUE) {
+                    inverse.add(type, index1, -1, array[index1], comparisons, swaps);
+                } else if (type == SortStep.StepType.MARK_SORTED) {
+                    int last = Math.min(lastMarked(index1, steps.getIndex2(i)), array.length - 1);
+                    for (int from = index1; from <= last; from++) {
+                        if (isSorted[from])
+                            continue;
+                        int to = from;
+                        while (to < last && !isSorted[to + 1]) {
+                            to++;
+                        }
+                        inverse.add(type, from, to, 0, comparisons, swaps);
+                        from = to;
+                    }
                 }
             }
+            applyStep(type, index1, steps.getIndex2(i), steps.getValue(i));
         }
     }
 
-    public void processStep(SortStep step) {
-        switch (step.getType()) {
+    // Applies the inverse log entries from..size-1 in reverse order, then repaints
+    public void undoSteps(StepBuffer inverse, int from) {
+        resetHighlights();
+        for (int i = inverse.size() - 1; i >= from; i--) {
+            int index1 = inverse.getIndex1(i);
+            switch (inverse.getType(i)) {
+                case SWAP:
+                    swapValues(index1, inverse.getIndex2(i));
+                    break;
+                case SET_VALUE:
+                    int oldValue = array[index1];
+                    array[index1] = inverse.getValue(i);
+                    renderer.valueChanged(index1, oldValue, array[index1]);
+                    break;
+                case MARK_SORTED:
+                    int last = lastMarked(index1, inverse.getIndex2(i));
+                    Arrays.fill(isSorted, index1, last + 1, false);
+                    renderer.markDirty(index1, last);
+                    break;
+                default:
+                    break;
+            }
+        }
+        repaint();
+    }
+
+    private void applyStep(SortStep.StepType type, int index1, int index2, int value) {
+        switch (type) {
             case COMPARE:
-                highlightCompare(step.getIndex1(), step.getIndex2());
+                setCompare(index1, index2);
                 break;
             case SWAP:
-                highlightSwap(step.getIndex1(), step.getIndex2());
+                swapValues(index1, index2);
+                setSwap(index1, index2);
                 break;
             case SET_VALUE:
-                highlightCompare(step.getIndex1(), step.getIndex1());
+                if (isValidIndex(index1)) {
+                    int oldValue = array[index1];
+                    array[index1] = value;
+                    renderer.valueChanged(index1, oldValue, value);
+                }
+                setCompare(index1, index1);
                 break;
             case MARK_SORTED:
-                markAsSorted(step.getIndex1());
-                repaint();
+                if (index2 < 0) {
+                    markAsSorted(index1);
+                } else {
+                    markRangeAsSorted(index1, index2);
+                }
                 break;
             case CLEAR_HIGHLIGHTS:
                 resetHighlights();
-                repaint();
+                clearWorkerRanges();
                 break;
             case PIVOT:
-                highlightPivot(step.getIndex1());
+                setPivot(index1);
                 break;
             case SUB_ARRAY:
-                highlightSubArray(step.getIndex1(), step.getIndex2());
+                setSubArray(index1, index2);
+                break;
+            case WORKER_RANGE:
+                setWorkerRange(value, index1, index2);
                 break;
         }
     }
+
+    private void swapValues(int idx1, int idx2) {
+        if (isValidIndex(idx1) && isValidIndex(idx2)) {
+            int temp = array[idx1];
+            array[idx1] = array[idx2];
+            array[idx2] = temp;
+            renderer.valueChanged(idx1, temp, array[idx1]);
+            renderer.valueChanged(idx2, array[idx1], temp);
+        }
+    }
+
+    // Last index a MARK_SORTED step covers: index2 for a range, index1 for a single mark
+    private static int lastMarked(int index1, int index2) {
+        return index2 < 0 ? index1 : index2;
+    }
+
+    private boolean isValidIndex(int index) {
+        return array != null && index >= 0 && index < array.length;
+    }
 }
\ No newline at end of file
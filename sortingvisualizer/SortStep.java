@@ -3,13 +3,13 @@ package sortingvisualizer;
 public class SortStep {
     public enum StepType {
         COMPARE, SWAP, SET_VALUE, MARK_SORTED, CLEAR_HIGHLIGHTS,
-        PIVOT, SUB_ARRAY
+        PIVOT, SUB_ARRAY, WORKER_RANGE
     }
 
     final StepType type;
     final int index1;
-    final int index2; // For COMPARE, SWAP, SUB_ARRAY (end index)
-    final int value; // For SET_VALUE
+    final int index2; // For COMPARE, SWAP, SUB_ARRAY and MARK_SORTED ranges (end index); -1 marks index1 alone
+    final int value; // For SET_VALUE, WORKER_RANGE (lane)
     final long comparisons;
     final long swaps;
 
@@ -62,6 +62,11 @@ public class SortStep {
         return new SortStep(StepType.MARK_SORTED, targetIndex, -1, 0, comparisons, swaps);
     }
 
+    // Marks start..end (inclusive) as one step
+    public static SortStep markSorted(int start, int end, long comparisons, long swaps) {
+        return new SortStep(StepType.MARK_SORTED, start, end, 0, comparisons, swaps);
+    }
+
     public static SortStep clearHighlights(long comparisons, long swaps) {
         return new SortStep(StepType.CLEAR_HIGHLIGHTS, -1, -1, 0, comparisons, swaps);
     }
@@ -73,4 +78,8 @@ public class SortStep {
     public static SortStep subArray(int startIdx, int endIdx, long comparisons, long swaps) {
         return new SortStep(StepType.SUB_ARRAY, startIdx, endIdx, 0, comparisons, swaps);
     }
+
+    public static SortStep workerRange(int lane, int startIdx, int endIdx, long comparisons, long swaps) {
+        return new SortStep(StepType.WORKER_RANGE, startIdx, endIdx, lane, comparisons, swaps);
+    }
 }
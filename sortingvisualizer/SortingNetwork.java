@@ -0,0 +1,177 @@
+package sortingvisualizer;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size sorting networks for small arrays, and a batch API that sorts
+ * many of them in one call without any {@link SortController} callbacks.
+ *
+ * A network is Batcher's merge exchange (Knuth, TAOCP 5.2.2, Algorithm M)
+ * generated once per size and kept as a list of comparators in layer order;
+ * the comparators within a layer touch disjoint positions. Every
+ * compare-exchange is a {@code Math.min}/{@code Math.max} pair, which the JIT
+ * compiles to conditional moves, so sorting never branches on the data.
+ *
+ * {@link #sortBatch} transposes blocks of {@link #BLOCK} arrays so that
+ * element e of every array in the block is contiguous. Each comparator then
+ * runs as one loop over the block, in {@link SortKernels#sortColumns}.
+ */
+public final class SortingNetwork {
+    public static final int MAX_SIZE = 64;
+
+    // Arrays sorted side by side in one transposed block
+    static final int BLOCK = 64;
+    // Smaller networks sort as fast one array at a time as the transpose costs
+    private static final int TRANSPOSE_MIN_SIZE = 16;
+
+    private static final SortingNetwork[] NETWORKS = new SortingNetwork[MAX_SIZE + 1];
+
+    private final int size;
+    private final int[] lo;
+    private final int[] hi;
+    // Index into lo/hi where each layer ends
+    private final int[] layerEnds;
+
+    private SortingNetwork(int size) {
+        this.size = size;
+        int[] los = new int[16];
+        int[] his = new int[16];
+        int[] ends = new int[16];
+        int count = 0, layers = 0;
+        for (int p = 1; p < size; p <<= 1) {
+            for (int k = p; k >= 1; k >>= 1) {
+                for (int j = k % p; j + k < size; j += 2 * k) {
+                    for (int i = 0; i < Math.min(k, size - j - k); i++) {
+                        if ((i + j) / (2 * p) == (i + j + k) / (2 * p)) {
+                            if (count == los.length) {
+                                los = Arrays.copyOf(los, count * 2);
+                                his = Arrays.copyOf(his, count * 2);
+                            }
+                            los[count] = i + j;
+                            his[count] = i + j + k;
+                            count++;
+                        }
+                    }
+                }
+                if (layers == ends.length) {
+                    ends = Arrays.copyOf(ends, layers * 2);
+                }
+                ends[layers++] = count;
+            }
+        }
+        this.lo = Arrays.copyOf(los, count);
+        this.hi = Arrays.copyOf(his, count);
+        this.layerEnds = Arrays.copyOf(ends, layers);
+    }
+
+    // Networks are immutable, so a racing first use at worst builds one twice
+    public static SortingNetwork forSize(int size) {
+        if (size < 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Sorting networks cover 0.." + MAX_SIZE + " elements, not " + size);
+        }
+        SortingNetwork network = NETWORKS[size];
+        if (network == null) {
+            network = new SortingNetwork(size);
+            NETWORKS[size] = network;
+        }
+        return network;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getComparatorCount() {
+        return lo.length;
+    }
+
+    // Number of layers, i.e. the parallel depth of the network
+    public int getDepth() {
+        return layerEnds.length;
+    }
+
+    // The positions compared by one comparator; the smaller value ends up at getLow
+    public int getLow(int comparator) {
+        return lo[comparator];
+    }
+
+    public int getHigh(int comparator) {
+        return hi[comparator];
+    }
+
+    public int getLayerEnd(int layer) {
+        return layerEnds[layer];
+    }
+
+    public void sort(int[] array) {
+        if (array.length != size) {
+            throw new IllegalArgumentException("Network sorts " + size + " elements, got " + array.length);
+        }
+        sort(array, 0);
+    }
+
+    // Sorts array[offset..offset + size())
+    public void sort(int[] array, int offset) {
+        int[] lo = this.lo, hi = this.hi;
+        for (int c = 0; c < lo.length; c++) {
+            int i = offset + lo[c], j = offset + hi[c];
+            int x = array[i], y = array[j];
+            array[i] = Math.min(x, y);
+            array[j] = Math.max(x, y);
+        }
+    }
+
+    /**
+     * Sorts count arrays of size() elements each, stored back to back from
+     * data[offset]. Whole blocks of networks with at least 16 inputs go
+     * through the transposed path; everything else is sorted one array at a
+     * time.
+     */
+    public void sortBatch(int[] data, int offset, int count) {
+        if (count < 0 || offset < 0 || offset + (long) count * size > data.length) {
+            throw new IllegalArgumentException("Batch of " + count + " x " + size + " at " + offset
+                    + " does not fit in " + data.length + " elements");
+        }
+        if (size < 2)
+            return;
+        int blocks = size < TRANSPOSE_MIN_SIZE ? 0 : count / BLOCK;
+        if (blocks > 0) {
+            int[] columns = new int[size * BLOCK];
+            SortKernels kernels = SortKernels.get();
+            for (int b = 0; b < blocks; b++) {
+                sortBlock(data, offset + b * BLOCK * size, columns, kernels);
+            }
+        }
+        for (int a = blocks * BLOCK; a < count; a++) {
+            sort(data, offset + a * size);
+        }
+    }
+
+    private void sortBlock(int[] data, int base, int[] columns, SortKernels kernels) {
+        int size = this.size;
+        for (int a = 0; a < BLOCK; a++) {
+            int row = base + a * size;
+            for (int e = 0; e < size; e++) {
+                columns[e * BLOCK + a] = data[row + e];
+            }
+        }
+        kernels.sortColumns(columns, BLOCK, this);
+        for (int a = 0; a < BLOCK; a++) {
+            int row = base + a * size;
+            for (int e = 0; e < size; e++) {
+                data[row + e] = columns[e * BLOCK + a];
+            }
+        }
+    }
+
+    // Sorts every array in place; arrays longer than MAX_SIZE fall back to Arrays.sort
+    public static void sortAll(int[][] arrays) {
+        for (int[] array : arrays) {
+            if (array.length > MAX_SIZE) {
+                Arrays.sort(array);
+            } else {
+                forSize(array.length).sort(array, 0);
+            }
+        }
+    }
+}
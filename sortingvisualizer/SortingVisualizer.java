@@ -2,42 +2,51 @@ package sortingvisualizer;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Random;
 
-import sortingvisualizer.algorithms.BubbleSort;
-import sortingvisualizer.algorithms.SelectionSort;
-import sortingvisualizer.algorithms.InsertionSort;
-import sortingvisualizer.algorithms.MergeSort;
-import sortingvisualizer.algorithms.QuickSort;
-import sortingvisualizer.algorithms.CountingSort;
-import sortingvisualizer.algorithms.RadixSort;
-import sortingvisualizer.algorithms.HeapSort;
-
 public class SortingVisualizer extends JFrame {
     private static final long serialVersionUID = 1L;
 
     private SortPanel sortPanel;
-    private JButton startButton, resetButton;
-    private JComboBox<Algorithm> algorithmComboBox;
+    private JButton startButton, resetButton, openTraceButton, compareButton, sortFileButton;
+    private JComboBox<AlgorithmRegistry.Entry> algorithmComboBox;
+    private JComboBox<LiveSortController.Backpressure> backpressureComboBox;
     private JSlider speedSlider, sizeSlider;
     private JLabel statusLabel;
     private JLabel comparisonsLabel;
     private JLabel swapsLabel;
+    private JLabel stepsPerFrameLabel;
+    private JSpinner fpsSpinner;
+    private JComboBox<String> largeSizeComboBox;
     private JPanel controlPanel;
 
     private volatile int[] array;
-    private SwingWorker<Void, SortStep> sortWorker;
-    private int delay = 50;
+    private SwingWorker<Void, Void> sortWorker;
+    private LiveSortController controller;
+    private MetricsController metrics;
+    private MetricsPanel metricsPanel;
+    private final EventFilter events;
+    private volatile double stepsPerSecond;
     private static final int DEFAULT_ARRAY_SIZE = 100;
     private static final int MAX_ARRAY_VALUE = 500;
 
-    // Statistics
-    private long comparisons = 0;
-    private long swaps = 0;
+    // Large-array presets; the panel draws one aggregated column per pixel for these
+    private static final int[] LARGE_SIZES = { 0, 10_000, 100_000, 1_000_000, 10_000_000, 20_000_000 };
+    private static final String[] LARGE_SIZE_LABELS = { "Off", "10K", "100K", "1M", "10M", "20M" };
+
+    // Events the windows pass to their live controllers; collapsing sorted marks never changes the picture
+    private static final String DEFAULT_EVENTS = "collapse-sorted";
+
+    // Drains the controller's recorded steps into the panel at the target frame rate
+    private final FrameScheduler frameScheduler = new FrameScheduler(this::renderFrame);
 
-    public SortingVisualizer() {
+    // events must keep array changes; see eventsFromSystemProperty()
+    public SortingVisualizer(EventFilter events) {
+        this.events = events;
         setTitle("Sorting Algorithm Visualizer");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout());
@@ -45,6 +54,9 @@ public class SortingVisualizer extends JFrame {
         sortPanel = new SortPanel();
         add(sortPanel, BorderLayout.CENTER);
 
+        metricsPanel = new MetricsPanel();
+        add(metricsPanel, BorderLayout.NORTH);
+
         setupControlPanel();
         add(controlPanel, BorderLayout.SOUTH);
 
@@ -67,9 +79,14 @@ public class SortingVisualizer extends JFrame {
         gbc.gridx = 0;
         gbc.gridy = 0;
         gbc.gridwidth = 2;
-        algorithmComboBox = new JComboBox<>(Algorithm.values());
+        algorithmComboBox = new JComboBox<>(
+                AlgorithmRegistry.getDefault().getAlgorithms().toArray(new AlgorithmRegistry.Entry[0]));
         algorithmComboBox.setBackground(Color.WHITE);
         algorithmComboBox.setForeground(Color.BLACK);
+        algorithmComboBox.addActionListener(e -> algorithmComboBox.setToolTipText(
+                ((AlgorithmRegistry.Entry) algorithmComboBox.getSelectedItem()).getInfo().toString()));
+        algorithmComboBox.setToolTipText(
+                ((AlgorithmRegistry.Entry) algorithmComboBox.getSelectedItem()).getInfo().toString());
         JLabel algoLabel = new JLabel("Algorithm:");
         algoLabel.setForeground(Color.WHITE);
         controlPanel.add(algoLabel, gbc);
@@ -98,7 +115,7 @@ public class SortingVisualizer extends JFrame {
         sizeSlider.setPaintLabels(true);
         sizeSlider.addChangeListener(e -> {
             if (!sizeSlider.getValueIsAdjusting() && (sortWorker == null || sortWorker.isDone())) {
-                generateRandomArray(sizeSlider.getValue());
+                generateRandomArray(selectedSize());
                 sortPanel.setArray(array);
                 statusLabel.setText("Array reset. Size: " + array.length);
                 comparisonsLabel.setText("Comparisons: 0");
@@ -110,21 +127,26 @@ public class SortingVisualizer extends JFrame {
         gbc.gridx = 0;
         gbc.gridy = 2;
         gbc.gridwidth = 1;
-        JLabel speedLabel = new JLabel("Speed:");
+        JLabel speedLabel = new JLabel();
         speedLabel.setForeground(Color.WHITE);
         controlPanel.add(speedLabel, gbc);
 
         gbc.gridx = 1;
         gbc.gridy = 2;
         gbc.gridwidth = 3;
-        speedSlider = new JSlider(0, 200, 150);
+        // Logarithmic: from one step every two seconds to unlimited at the right end
+        speedSlider = new JSlider(0, 200, 50);
         speedSlider.setBackground(new Color(30, 30, 30));
         speedSlider.setForeground(Color.WHITE);
         speedSlider.setMajorTickSpacing(50);
         speedSlider.setPaintTicks(true);
-        speedSlider.addChangeListener(e -> delay = Math.max(0, 200 - speedSlider.getValue()));
+        Runnable updateSpeed = () -> {
+            stepsPerSecond = StepPacer.rateForSlider(speedSlider.getValue(), speedSlider.getMaximum());
+            speedLabel.setText("Speed: " + StepPacer.describe(stepsPerSecond));
+        };
+        speedSlider.addChangeListener(e -> updateSpeed.run());
         controlPanel.add(speedSlider, gbc);
-        delay = Math.max(0, 200 - speedSlider.getValue());
+        updateSpeed.run();
 
         gbc.gridx = 0;
         gbc.gridy = 3;
@@ -145,11 +167,15 @@ public class SortingVisualizer extends JFrame {
         resetButton.setFocusPainted(false);
         resetButton.addActionListener(e -> {
             if (sortWorker != null && !sortWorker.isDone()) {
+                controller.cancel();
                 sortWorker.cancel(true);
             }
-            generateRandomArray(sizeSlider.getValue());
+            discardPendingFrames();
+            generateRandomArray(selectedSize());
             sortPanel.setArray(array);
             sortPanel.clearAllSortedMarks();
+            metrics = null;
+            metricsPanel.showMetrics(null);
             statusLabel.setText("Array reset. Size: " + array.length);
             comparisonsLabel.setText("Comparisons: 0");
             swapsLabel.setText("Swaps: 0");
@@ -181,26 +207,190 @@ public class SortingVisualizer extends JFrame {
         swapsLabel.setHorizontalAlignment(SwingConstants.CENTER);
         controlPanel.add(swapsLabel, gbc);
 
+        gbc.gridx = 0;
+        gbc.gridy = 6;
+        gbc.gridwidth = 1;
+        JLabel fpsLabel = new JLabel("Target FPS:");
+        fpsLabel.setForeground(Color.WHITE);
+        controlPanel.add(fpsLabel, gbc);
+
+        gbc.gridx = 1;
+        gbc.gridy = 6;
+        gbc.gridwidth = 1;
+        fpsSpinner = new JSpinner(new SpinnerNumberModel(FrameScheduler.DEFAULT_FPS, FrameScheduler.MIN_FPS,
+                FrameScheduler.MAX_FPS, 5));
+        fpsSpinner.addChangeListener(e -> frameScheduler.setTargetFps((Integer) fpsSpinner.getValue()));
+        controlPanel.add(fpsSpinner, gbc);
+
+        gbc.gridx = 2;
+        gbc.gridy = 6;
+        gbc.gridwidth = 2;
+        stepsPerFrameLabel = new JLabel("Steps/frame: 0");
+        stepsPerFrameLabel.setForeground(Color.WHITE);
+        stepsPerFrameLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        controlPanel.add(stepsPerFrameLabel, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 7;
+        gbc.gridwidth = 1;
+        JLabel largeLabel = new JLabel("Large array:");
+        largeLabel.setForeground(Color.WHITE);
+        controlPanel.add(largeLabel, gbc);
+
+        gbc.gridx = 1;
+        gbc.gridy = 7;
+        gbc.gridwidth = 1;
+        largeSizeComboBox = new JComboBox<>(LARGE_SIZE_LABELS);
+        largeSizeComboBox.setBackground(Color.WHITE);
+        largeSizeComboBox.setForeground(Color.BLACK);
+        largeSizeComboBox.addActionListener(e -> {
+            if (sortWorker == null || sortWorker.isDone()) {
+                sizeSlider.setEnabled(largeSizeComboBox.getSelectedIndex() == 0);
+                generateRandomArray(selectedSize());
+                sortPanel.setArray(array);
+                statusLabel.setText("Array reset. Size: " + array.length);
+                comparisonsLabel.setText("Comparisons: 0");
+                swapsLabel.setText("Swaps: 0");
+            }
+        });
+        controlPanel.add(largeSizeComboBox, gbc);
+
+        gbc.gridx = 2;
+        gbc.gridy = 7;
+        gbc.gridwidth = 2;
+        openTraceButton = new JButton("Open Trace...");
+        openTraceButton.setFocusPainted(false);
+        openTraceButton.addActionListener(e -> openTrace());
+        controlPanel.add(openTraceButton, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 8;
+        gbc.gridwidth = 2;
+        compareButton = new JButton("Compare Algorithms...");
+        compareButton.setFocusPainted(false);
+        // Races run on the array currently shown, so they can be checked against a single run
+        compareButton.addActionListener(e -> new ComparisonWindow(array, events));
+        controlPanel.add(compareButton, gbc);
+
+        gbc.gridx = 2;
+        gbc.gridy = 8;
+        gbc.gridwidth = 2;
+        sortFileButton = new JButton("Sort File...");
+        sortFileButton.setFocusPainted(false);
+        sortFileButton.addActionListener(e -> sortFile());
+        controlPanel.add(sortFileButton, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 9;
+        gbc.gridwidth = 1;
+        JLabel backpressureLabel = new JLabel("When behind:");
+        backpressureLabel.setForeground(Color.WHITE);
+        controlPanel.add(backpressureLabel, gbc);
+
+        gbc.gridx = 1;
+        gbc.gridy = 9;
+        gbc.gridwidth = 1;
+        backpressureComboBox = new JComboBox<>(LiveSortController.Backpressure.values());
+        backpressureComboBox.setBackground(Color.WHITE);
+        backpressureComboBox.setForeground(Color.BLACK);
+        backpressureComboBox.setToolTipText("What the sort does when rendering cannot keep up");
+        controlPanel.add(backpressureComboBox, gbc);
+
         this.controlPanel = controlPanel;
     }
 
+    private void openTrace() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION)
+            return;
+        try {
+            new ReplayWindow(chooser.getSelectedFile().toPath());
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not open trace: " + e.getMessage(), "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    // Sorts a file of big-endian ints too large for the heap. The chunk algorithm is chosen separately
+    // from the combo box, which defaults to quadratic sorts that would never finish a chunk
+    private void sortFile() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("File of ints to sort");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION)
+            return;
+        Path input = chooser.getSelectedFile().toPath();
+        chooser.setDialogTitle("Write sorted ints to");
+        chooser.setSelectedFile(new File(chooser.getSelectedFile().getPath() + ".sorted"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION)
+            return;
+        AlgorithmRegistry.Entry[] choices = AlgorithmRegistry.getDefault().getAlgorithms().stream()
+                .filter(entry -> ExternalSort.sortsChunks(entry.getInfo()))
+                .toArray(AlgorithmRegistry.Entry[]::new);
+        AlgorithmRegistry.Entry algorithm = (AlgorithmRegistry.Entry) JOptionPane.showInputDialog(this,
+                "Sort chunks with:", "Sort File", JOptionPane.QUESTION_MESSAGE, null, choices,
+                Algorithm.PDQ_SORT.entry());
+        if (algorithm == null)
+            return;
+        try {
+            new ExternalSortWindow(input, chooser.getSelectedFile().toPath(), algorithm);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not sort file: " + e.getMessage(), "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private int selectedSize() {
+        int largeSize = LARGE_SIZES[largeSizeComboBox.getSelectedIndex()];
+        return largeSize > 0 ? largeSize : sizeSlider.getValue();
+    }
+
     private void generateRandomArray(int size) {
         if (size <= 0)
             size = DEFAULT_ARRAY_SIZE;
         int[] newArray = new int[size];
         Random random = new Random();
+        // Large arrays get a matching value range so they are not mostly duplicates
+        int valueRange = Math.max(MAX_ARRAY_VALUE, size);
         for (int i = 0; i < size; i++) {
-            newArray[i] = random.nextInt(MAX_ARRAY_VALUE) + 1;
+            newArray[i] = random.nextInt(valueRange) + 1;
         }
         this.array = newArray;
         statusLabel.setText("Generated new array. Size: " + size);
     }
 
     private void setControlsEnabled(boolean enabled) {
+        // Reset stays enabled so a long run can be cancelled
         startButton.setEnabled(enabled);
-        resetButton.setEnabled(enabled);
         algorithmComboBox.setEnabled(enabled);
-        sizeSlider.setEnabled(enabled);
+        backpressureComboBox.setEnabled(enabled);
+        largeSizeComboBox.setEnabled(enabled);
+        sizeSlider.setEnabled(enabled && largeSizeComboBox.getSelectedIndex() == 0);
+    }
+
+    // Applies every step recorded since the last frame, then paints once
+    private void renderFrame() {
+        if (controller == null)
+            return;
+        StepBuffer steps = controller.takeSteps();
+        int count = steps.size();
+        sortPanel.processSteps(steps);
+        if (count > 0) {
+            comparisonsLabel.setText("Comparisons: " + steps.getComparisons(count - 1));
+            swapsLabel.setText("Swaps: " + steps.getSwaps(count - 1));
+        }
+        long dropped = controller.getDroppedSteps();
+        stepsPerFrameLabel.setText("Steps/frame: " + count + (dropped > 0 ? " (dropped " + dropped + ")" : ""));
+        if (metrics != null) {
+            metricsPanel.showMetrics(metrics.snapshot());
+        }
+    }
+
+    private void discardPendingFrames() {
+        frameScheduler.stop();
+        if (controller != null) {
+            controller.discardSteps();
+        }
+        stepsPerFrameLabel.setText("Steps/frame: 0");
     }
 
     private void startSorting() {
@@ -211,126 +401,68 @@ public class SortingVisualizer extends JFrame {
         }
 
         setControlsEnabled(false);
-        sortPanel.clearAllSortedMarks();
+        // The panel replays the steps onto its own copy of the array
+        sortPanel.setArray(Arrays.copyOf(this.array, this.array.length));
         statusLabel.setText("Sorting...");
-        comparisons = 0;
-        swaps = 0;
         comparisonsLabel.setText("Comparisons: 0");
         swapsLabel.setText("Swaps: 0");
 
-        Algorithm selectedAlgorithm = (Algorithm) algorithmComboBox.getSelectedItem();
+        AlgorithmRegistry.Entry selectedAlgorithm = (AlgorithmRegistry.Entry) algorithmComboBox.getSelectedItem();
         final int[] arrayToSort = Arrays.copyOf(this.array, this.array.length);
+        discardPendingFrames();
+        final LiveSortController controller = new LiveSortController(() -> stepsPerSecond,
+                (LiveSortController.Backpressure) backpressureComboBox.getSelectedItem(),
+                LiveSortController.DEFAULT_CAPACITY);
+        this.controller = controller;
+        final MetricsController metrics = new MetricsController(events.apply(controller),
+                selectedAlgorithm.toString(), arrayToSort.length);
+        this.metrics = metrics;
+        frameScheduler.start();
 
         sortWorker = new SwingWorker<>() {
             @Override
             protected Void doInBackground() throws Exception {
-                SortController controller = new SortController() {
-                    @Override
-                    public void compare(int idx1, int idx2) throws InterruptedException {
-                        comparisons++;
-                        publish(SortStep.compare(idx1, idx2, comparisons, swaps));
-                        Thread.sleep(delay);
-                    }
-
-                    @Override
-                    public void swap(int idx1, int idx2) throws InterruptedException {
-                        swaps++;
-                        publish(SortStep.swap(idx1, idx2, comparisons, swaps));
-                        Thread.sleep(delay);
-                    }
-
-                    @Override
-                    public void setValue(int index, int value) throws InterruptedException {
-                        publish(SortStep.setValue(index, value, comparisons, swaps));
-                        Thread.sleep(delay);
-                    }
-
-                    @Override
-                    public void markSorted(int index) throws InterruptedException {
-                        publish(SortStep.markSorted(index, comparisons, swaps));
-                    }
-
-                    @Override
-                    public void clearHighlights() throws InterruptedException {
-                        publish(SortStep.clearHighlights(comparisons, swaps));
-                    }
-
-                    @Override
-                    public void pivot(int index) throws InterruptedException {
-                        publish(SortStep.pivot(index, comparisons, swaps));
-                    }
-
-                    @Override
-                    public void subArray(int start, int end) throws InterruptedException {
-                        publish(SortStep.subArray(start, end, comparisons, swaps));
-                    }
-
-                    @Override
-                    public boolean isCancelled() {
-                        return sortWorker.isCancelled();
-                    }
-
-                    @Override
-                    public void addComparison() {
-                        comparisons++;
-                    }
-
-                    @Override
-                    public void addSwap() {
-                        swaps++;
-                    }
-                };
-
-                switch (selectedAlgorithm) {
-                    case BUBBLE_SORT:
-                        new BubbleSort().runSort(arrayToSort, controller);
-                        break;
-                    case SELECTION_SORT:
-                        new SelectionSort().runSort(arrayToSort, controller);
-                        break;
-                    case INSERTION_SORT:
-                        new InsertionSort().runSort(arrayToSort, controller);
-                        break;
-                    case MERGE_SORT:
-                        new MergeSort().runSort(arrayToSort, controller);
-                        break;
-                    case QUICK_SORT:
-                        new QuickSort().runSort(arrayToSort, controller);
-                        break;
-                    case COUNTING_SORT:
-                        new CountingSort().runSort(arrayToSort, controller);
-                        break;
-                    case RADIX_SORT:
-                        new RadixSort().runSort(arrayToSort, controller);
-                        break;
-                    case HEAP_SORT:
-                        new HeapSort().runSort(arrayToSort, controller);
-                        break;
+                metrics.start();
+                try {
+                    selectedAlgorithm.newInstance().runSort(arrayToSort, metrics);
+                } finally {
+                    metrics.finish();
                 }
                 return null;
             }
 
-            @Override
-            protected void process(List<SortStep> chunks) {
-                for (SortStep step : chunks) {
-                    if (isCancelled())
-                        break;
-                    sortPanel.processStep(step);
-                    comparisonsLabel.setText("Comparisons: " + step.getComparisons());
-                    swapsLabel.setText("Swaps: " + step.getSwaps());
-                }
-            }
-
             @Override
             protected void done() {
+                frameScheduler.stop();
+                if (!isCancelled()) {
+                    renderFrame(); // Flush whatever the last tick did not pick up
+                }
                 setControlsEnabled(true);
-                statusLabel.setText("Sorting Complete!");
+                statusLabel.setText(isCancelled() ? "Sorting cancelled." : "Sorting Complete!");
             }
         };
         sortWorker.execute();
     }
 
+    // The panel replays every swap and write onto its own array, so filters that drop them are refused
+    static EventFilter eventsFromSystemProperty() {
+        EventFilter events = EventFilter.fromSystemProperty(DEFAULT_EVENTS);
+        if (!events.keepsArrayChanges()) {
+            throw new IllegalArgumentException("the bars need every swap and write, so off, none, no-swap and no-set-value"
+                    + " cannot be used: " + events);
+        }
+        return events;
+    }
+
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(SortingVisualizer::new);
+        EventFilter events;
+        try {
+            events = eventsFromSystemProperty();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Bad -D" + EventFilter.EVENTS_PROPERTY + ": " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        SwingUtilities.invokeLater(() -> new SortingVisualizer(events));
     }
 }
\ No newline at end of file
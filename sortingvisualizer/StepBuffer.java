@@ -0,0 +1,106 @@
+package sortingvisualizer;
+
+import java.util.Arrays;
+
+/**
+ * Growable, column-oriented log of sort steps.
+ *
+ * Each step is stored as one slot across a set of parallel primitive arrays
+ * (opcode, indices, value and the statistics at the time of the step), so
+ * recording a step never allocates once the buffer has grown to its working
+ * size. The buffer is cleared and reused rather than discarded, which keeps
+ * the sorting thread from producing garbage on every controller callback.
+ *
+ * This class is not thread-safe; callers hand whole buffers between threads.
+ */
+public class StepBuffer {
+    private static final SortStep.StepType[] TYPES = SortStep.StepType.values();
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private int[] types;
+    private int[] index1;
+    private int[] index2;
+    private int[] values;
+    private long[] comparisons;
+    private long[] swaps;
+    private int size;
+
+    public StepBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public StepBuffer(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        types = new int[capacity];
+        index1 = new int[capacity];
+        index2 = new int[capacity];
+        values = new int[capacity];
+        comparisons = new long[capacity];
+        swaps = new long[capacity];
+    }
+
+    public void add(SortStep.StepType type, int idx1, int idx2, int value, long comparisons, long swaps) {
+        if (size == types.length) {
+            grow();
+        }
+        this.types[size] = type.ordinal();
+        this.index1[size] = idx1;
+        this.index2[size] = idx2;
+        this.values[size] = value;
+        this.comparisons[size] = comparisons;
+        this.swaps[size] = swaps;
+        size++;
+    }
+
+    private void grow() {
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        index1 = Arrays.copyOf(index1, capacity);
+        index2 = Arrays.copyOf(index2, capacity);
+        values = Arrays.copyOf(values, capacity);
+        comparisons = Arrays.copyOf(comparisons, capacity);
+        swaps = Arrays.copyOf(swaps, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Keeps the backing arrays so the buffer can be refilled without allocating
+    public void clear() {
+        size = 0;
+    }
+
+    // Drops every step from the given index on
+    public void truncate(int newSize) {
+        size = Math.max(0, Math.min(size, newSize));
+    }
+
+    public SortStep.StepType getType(int i) {
+        return TYPES[types[i]];
+    }
+
+    public int getIndex1(int i) {
+        return index1[i];
+    }
+
+    public int getIndex2(int i) {
+        return index2[i];
+    }
+
+    public int getValue(int i) {
+        return values[i];
+    }
+
+    public long getComparisons(int i) {
+        return comparisons[i];
+    }
+
+    public long getSwaps(int i) {
+        return swaps[i];
+    }
+}
@@ -0,0 +1,139 @@
+package sortingvisualizer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Paces a sort to a target number of steps per second.
+ *
+ * Every step advances an absolute deadline by one period, so rounding and
+ * oversleeping never accumulate into drift: a step that wakes late is
+ * followed by steps that do not wait at all until the schedule is met again.
+ * The thread only parks once it is at least {@link #MIN_PARK_NANOS} ahead,
+ * so at high rates many steps run per wake-up instead of being held back by
+ * timer resolution. After a long stall at most {@link #MAX_LAG_NANOS} of
+ * steps are caught up, rather than running a burst for the whole stall.
+ *
+ * The rate is read on every step and while parked, so a speed control takes
+ * effect immediately. A non-positive or infinite rate runs unpaced.
+ *
+ * {@link #step()} is {@link #schedule()} followed by {@link #await(long)}.
+ * Threads sharing one schedule call schedule() under a common lock and
+ * await() after releasing it, so they sleep side by side. The wait is a
+ * {@link ForkJoinPool.ManagedBlocker}, so a fork/join worker parked here is
+ * compensated for and a paced parallel sort does not starve its pool, or the
+ * common pool other sorts run on.
+ */
+public class StepPacer {
+    public static final double UNLIMITED = Double.POSITIVE_INFINITY;
+
+    // Slider positions map logarithmically onto MIN_RATE..MAX_RATE; the top position is unlimited
+    public static final double MIN_RATE = 0.5;
+    public static final double MAX_RATE = 2_000_000;
+
+    static final long MIN_PARK_NANOS = 100_000;
+    static final long MAX_LAG_NANOS = 50_000_000;
+    // Longest single park, so rate changes and cancellation are noticed during slow steps
+    private static final long MAX_PARK_NANOS = 10_000_000;
+
+    private final DoubleSupplier stepsPerSecond;
+    private final BooleanSupplier cancelled;
+
+    // Written by schedule() only; volatile because await() may run on another thread
+    private volatile double rate = Double.NaN;
+    private long deadline;
+    // Fractional nanoseconds of the period carried to the next step
+    private double remainder;
+
+    public StepPacer(DoubleSupplier stepsPerSecond, BooleanSupplier cancelled) {
+        this.stepsPerSecond = stepsPerSecond;
+        this.cancelled = cancelled;
+    }
+
+    public static double rateForSlider(int value, int max) {
+        if (value >= max)
+            return UNLIMITED;
+        return MIN_RATE * Math.pow(MAX_RATE / MIN_RATE, (double) value / max);
+    }
+
+    public static String describe(double rate) {
+        if (!(rate > 0) || Double.isInfinite(rate))
+            return "max";
+        if (rate >= 1_000_000)
+            return String.format("%.1fM/s", rate / 1_000_000);
+        if (rate >= 1_000)
+            return String.format("%.1fk/s", rate / 1_000);
+        if (rate >= 10)
+            return String.format("%.0f/s", rate);
+        return String.format("%.1f/s", rate);
+    }
+
+    // Waits until the next step is due
+    public void step() throws InterruptedException {
+        await(schedule());
+    }
+
+    // Books the next step into the schedule and returns how long to wait for it; 0 if it is due now
+    public long schedule() {
+        double current = stepsPerSecond.getAsDouble();
+        if (!(current > 0) || Double.isInfinite(current)) {
+            rate = current;
+            return 0;
+        }
+        long now = System.nanoTime();
+        if (current != rate) {
+            // A new rate starts a new schedule from this step
+            rate = current;
+            deadline = now;
+            remainder = 0;
+        }
+        double period = 1e9 / rate + remainder;
+        long whole = (long) period;
+        remainder = period - whole;
+        deadline += whole;
+        if (now - deadline > MAX_LAG_NANOS) {
+            deadline = now - MAX_LAG_NANOS;
+        }
+
+        long wait = deadline - now;
+        return wait < MIN_PARK_NANOS ? 0 : wait;
+    }
+
+    // Parks for a wait returned by schedule(), returning early on cancellation or a rate change
+    public void await(long waitNanos) throws InterruptedException {
+        if (waitNanos <= 0)
+            return;
+        ForkJoinPool.managedBlock(new Wait(rate, System.nanoTime() + waitNanos));
+    }
+
+    private final class Wait implements ForkJoinPool.ManagedBlocker {
+        private final double scheduled;
+        private final long due;
+
+        Wait(double scheduled, long due) {
+            this.scheduled = scheduled;
+            this.due = due;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(Math.min(wait, MAX_PARK_NANOS));
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+                if (cancelled.getAsBoolean() || stepsPerSecond.getAsDouble() != scheduled)
+                    break;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return due - System.nanoTime() <= 0 || cancelled.getAsBoolean()
+                    || stepsPerSecond.getAsDouble() != scheduled;
+        }
+    }
+}
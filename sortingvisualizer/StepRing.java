@@ -0,0 +1,91 @@
+package sortingvisualizer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-producer / single-consumer ring of sort steps.
+ *
+ * Slots are stored column-wise like {@link StepBuffer}, so neither side
+ * allocates. The producer publishes a slot by advancing the tail with a
+ * release store and the consumer frees slots the same way with the head.
+ * The producer keeps a cached copy of the head and only re-reads it when the
+ * ring looks full. No locks are taken on either side.
+ *
+ * Exactly one thread may offer at a time and exactly one may drain; callers
+ * that have several producers must serialise them, as
+ * {@link LiveSortController} does with its producer lock.
+ */
+public class StepRing {
+    private static final SortStep.StepType[] TYPES = SortStep.StepType.values();
+
+    private final int mask;
+    private final int[] types;
+    private final int[] index1;
+    private final int[] index2;
+    private final int[] values;
+    private final long[] comparisons;
+    private final long[] swaps;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    // Producer's last view of head; touched by the producer only
+    private long cachedHead;
+
+    // capacity is rounded up to a power of two
+    public StepRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        mask = size - 1;
+        types = new int[size];
+        index1 = new int[size];
+        index2 = new int[size];
+        values = new int[size];
+        comparisons = new long[size];
+        swaps = new long[size];
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    // Producer side: appends a step, or returns false if the ring is full
+    public boolean offer(SortStep.StepType type, int idx1, int idx2, int value, long comparisons, long swaps) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            cachedHead = head.get();
+            if (t - cachedHead > mask)
+                return false;
+        }
+        int slot = (int) t & mask;
+        this.types[slot] = type.ordinal();
+        this.index1[slot] = idx1;
+        this.index2[slot] = idx2;
+        this.values[slot] = value;
+        this.comparisons[slot] = comparisons;
+        this.swaps[slot] = swaps;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    // Consumer side: moves every published step into out and frees their slots
+    public int drainTo(StepBuffer out) {
+        long h = head.get();
+        long end = tail.get();
+        for (long i = h; i < end; i++) {
+            int slot = (int) i & mask;
+            out.add(TYPES[types[slot]], index1[slot], index2[slot], values[slot], comparisons[slot],
+                    swaps[slot]);
+        }
+        head.lazySet(end);
+        return (int) (end - h);
+    }
+
+    // Consumer side: frees every published step without reading it
+    public void clear() {
+        head.lazySet(tail.get());
+    }
+
+    // Approximate when called while the other side is running
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+}
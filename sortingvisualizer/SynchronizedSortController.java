@@ -0,0 +1,95 @@
+package sortingvisualizer;
+
+/**
+ * Thread-safe view of a SortController that serializes every call on a
+ * single lock. Parallel algorithms wrap controllers that do not report
+ * {@link SortController#isThreadSafe()} with this class before handing them
+ * to worker threads.
+ */
+public class SynchronizedSortController implements SortController {
+    private final SortController delegate;
+
+    public SynchronizedSortController(SortController delegate) {
+        this.delegate = delegate;
+    }
+
+    // Returns the controller itself when it is already safe to share
+    public static SortController wrap(SortController controller) {
+        return controller.isThreadSafe() ? controller : new SynchronizedSortController(controller);
+    }
+
+    @Override
+    public synchronized void compare(int idx1, int idx2) throws InterruptedException {
+        delegate.compare(idx1, idx2);
+    }
+
+    @Override
+    public synchronized void swap(int idx1, int idx2) throws InterruptedException {
+        delegate.swap(idx1, idx2);
+    }
+
+    @Override
+    public synchronized void setValue(int index, int value) throws InterruptedException {
+        delegate.setValue(index, value);
+    }
+
+    @Override
+    public synchronized void markSorted(int index) throws InterruptedException {
+        delegate.markSorted(index);
+    }
+
+    @Override
+    public synchronized void markSorted(int start, int end) throws InterruptedException {
+        delegate.markSorted(start, end);
+    }
+
+    @Override
+    public synchronized void clearHighlights() throws InterruptedException {
+        delegate.clearHighlights();
+    }
+
+    @Override
+    public synchronized void pivot(int index) throws InterruptedException {
+        delegate.pivot(index);
+    }
+
+    @Override
+    public synchronized void subArray(int start, int end) throws InterruptedException {
+        delegate.subArray(start, end);
+    }
+
+    @Override
+    public synchronized void workerRange(int lane, int start, int end) throws InterruptedException {
+        delegate.workerRange(lane, start, end);
+    }
+
+    @Override
+    public synchronized void phaseCompleted(String phase, long nanos) {
+        delegate.phaseCompleted(phase, nanos);
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return delegate.isCancelled();
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public synchronized void addComparison() {
+        delegate.addComparison();
+    }
+
+    @Override
+    public synchronized void addComparisons(long count) {
+        delegate.addComparisons(count);
+    }
+
+    @Override
+    public synchronized void addSwap() {
+        delegate.addSwap();
+    }
+}
@@ -0,0 +1,227 @@
+package sortingvisualizer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Random access over a recorded trace, driving a {@link SortPanel}.
+ *
+ * Every {@code interval} events the full array and its sorted marks are
+ * kept as a checkpoint. The interval is a multiple of the trace block size
+ * and grows with the array so the checkpoints fit in a fixed memory budget.
+ * {@link #buildCheckpoints} takes them all in one pass over a second reader
+ * of the same trace, on a background thread, while playback goes on.
+ *
+ * Jumping to an event restores the nearest built checkpoint at or before it
+ * and replays forward. Below {@link #builtLength()} that costs at most one
+ * interval of events; past it, the distance from the last built checkpoint.
+ * Each mutating step that is applied also logs its inverse, so moving
+ * backwards by a few events undoes them directly instead.
+ *
+ * Not thread-safe apart from buildCheckpoints; everything else is used from
+ * the event dispatch thread only.
+ */
+public class Timeline {
+    private static final long DEFAULT_MEMORY_BUDGET = Math.min(256L << 20, Runtime.getRuntime().maxMemory() / 4);
+    private static final int MAX_UNDO_STEPS = 1 << 20;
+
+    private final TraceReader reader;
+    private final SortPanel panel;
+    private final long interval;
+
+    // Checkpoint i holds the state before event i * interval; the first built ones are published through built
+    private final int[][] snapshots;
+    private final BitSet[] sortedSnapshots;
+    private volatile int built;
+
+    private final StepBuffer steps = new StepBuffer();
+
+    // Inverse of every mutating step applied since undoStart, and the event each came from
+    private final StepBuffer undo = new StepBuffer();
+    private long[] undoEvents = new long[1024];
+    private long undoStart = 0;
+
+    public Timeline(TraceReader reader, SortPanel panel) throws IOException {
+        this(reader, panel, DEFAULT_MEMORY_BUDGET);
+    }
+
+    public Timeline(TraceReader reader, SortPanel panel, long memoryBudget) throws IOException {
+        this.reader = reader;
+        this.panel = panel;
+
+        int[] initial = reader.getInitialArray();
+        long snapshotBytes = Math.max(1, initial.length * 4L + initial.length / 8);
+        long maxSnapshots = Math.max(1, memoryBudget / snapshotBytes);
+        long blockSize = reader.getBlockSize();
+        long minInterval = (reader.getEventCount() + maxSnapshots - 1) / maxSnapshots;
+        long blocks = Math.max(1, (minInterval + blockSize - 1) / blockSize);
+        interval = blocks * blockSize;
+
+        int checkpoints = (int) (reader.getEventCount() / interval) + 1;
+        snapshots = new int[checkpoints][];
+        sortedSnapshots = new BitSet[checkpoints];
+        snapshots[0] = initial;
+        sortedSnapshots[0] = new BitSet();
+        built = 1;
+        panel.setArray(initial.clone());
+        reader.seek(0);
+    }
+
+    public long position() {
+        return reader.position();
+    }
+
+    public long length() {
+        return reader.getEventCount();
+    }
+
+    // Events between checkpoints
+    public long getInterval() {
+        return interval;
+    }
+
+    public int getCheckpointCount() {
+        return snapshots.length;
+    }
+
+    public int getBuiltCheckpointCount() {
+        return built;
+    }
+
+    // Events that can be reached by replaying at most one interval
+    public long builtLength() {
+        int count = built;
+        return count == snapshots.length ? length() : Math.min(length(), count * interval);
+    }
+
+    /**
+     * Replays the whole trace from {@code source}, a second reader of the
+     * same file, on the calling thread and publishes each checkpoint as it
+     * passes. Returns early if {@code cancelled} turns true.
+     */
+    public void buildCheckpoints(TraceReader source, BooleanSupplier cancelled) throws IOException {
+        int[] values = snapshots[0].clone();
+        BitSet sorted = new BitSet(values.length);
+        StepBuffer buffer = new StepBuffer();
+        source.seek(0);
+        for (int checkpoint = 1; checkpoint < snapshots.length; checkpoint++) {
+            long end = checkpoint * interval;
+            while (source.position() < end) {
+                if (cancelled.getAsBoolean())
+                    return;
+                buffer.clear();
+                source.read(buffer, (int) Math.min(end - source.position(), reader.getBlockSize()));
+                apply(buffer, values, sorted);
+            }
+            snapshots[checkpoint] = values.clone();
+            sortedSnapshots[checkpoint] = (BitSet) sorted.clone();
+            built = checkpoint + 1;
+        }
+    }
+
+    // The array changes of SortPanel.applySteps, without the highlights
+    private static void apply(StepBuffer steps, int[] values, BitSet sorted) {
+        int n = values.length;
+        for (int i = 0; i < steps.size(); i++) {
+            int index1 = steps.getIndex1(i);
+            int index2 = steps.getIndex2(i);
+            switch (steps.getType(i)) {
+                case SWAP:
+                    if (index1 >= 0 && index1 < n && index2 >= 0 && index2 < n) {
+                        int temp = values[index1];
+                        values[index1] = values[index2];
+                        values[index2] = temp;
+                    }
+                    break;
+                case SET_VALUE:
+                    if (index1 >= 0 && index1 < n) {
+                        values[index1] = steps.getValue(i);
+                    }
+                    break;
+                case MARK_SORTED:
+                    int last = Math.min(index2 < 0 ? index1 : index2, n - 1);
+                    if (last >= 0 && index1 <= last) {
+                        sorted.set(Math.max(0, index1), last + 1);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /** Moves the panel to the state just before {@code event}. */
+    public void seek(long event) throws IOException {
+        long target = Math.max(0, Math.min(event, length()));
+        long position = position();
+        if (target == position)
+            return;
+
+        if (target < position && target >= undoStart) {
+            int from = firstUndoAtOrAfter(target);
+            panel.undoSteps(undo, from);
+            undo.truncate(from);
+            reader.seek(target);
+            return;
+        }
+
+        int checkpoint = (int) Math.min(target / interval, built - 1);
+        long checkpointEvent = checkpoint * interval;
+        if (target < position || checkpointEvent > position) {
+            panel.restore(snapshots[checkpoint], sortedSnapshots[checkpoint]);
+            reader.seek(checkpointEvent);
+            clearUndo();
+        }
+        advance(target - position());
+    }
+
+    /** Applies up to {@code events} further events and repaints once. */
+    public void advance(long events) throws IOException {
+        long end = Math.min(length(), position() + Math.max(0, events));
+        while (reader.position() < end) {
+            long event = reader.position();
+            steps.clear();
+            reader.read(steps, 1);
+            int before = undo.size();
+            if (before >= MAX_UNDO_STEPS) {
+                clearUndo();
+                before = 0;
+            }
+            panel.applySteps(steps, undo);
+            recordUndoEvents(before, event);
+        }
+        panel.repaint();
+    }
+
+    private void recordUndoEvents(int from, long event) {
+        int size = undo.size();
+        if (size > undoEvents.length) {
+            undoEvents = Arrays.copyOf(undoEvents, Math.max(size, undoEvents.length * 2));
+        }
+        for (int i = from; i < size; i++) {
+            undoEvents[i] = event;
+        }
+    }
+
+    // Forgets the inverse log; moving back before this point goes through a checkpoint
+    private void clearUndo() {
+        undo.clear();
+        undoStart = reader.position();
+    }
+
+    private int firstUndoAtOrAfter(long event) {
+        int low = 0;
+        int high = undo.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (undoEvents[mid] < event) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
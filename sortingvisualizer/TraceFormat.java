@@ -0,0 +1,47 @@
+package sortingvisualizer;
+
+/**
+ * Layout of the binary trace files written by {@link TraceWriter} and read by
+ * {@link TraceReader}.
+ *
+ * <pre>
+ * header:  int magic, byte version, varint nameLength, name (UTF-8),
+ *          varint n, n x zigzag varint (delta from the previous element)
+ * events:  byte opcode, then operands as zigzag varints; indices are stored
+ *          as deltas from the previous index, which resets to 0 at the start
+ *          of every block of BLOCK_SIZE events so decoding can begin there
+ * index:   per block: long byte offset, long comparisons, long swaps; the
+ *          counts are taken just before the block's first event
+ * trailer: long indexOffset, long eventCount, int blockSize, int magic
+ * </pre>
+ *
+ * Opcodes 0..7 are {@link SortStep.StepType} ordinals. A sorted range has
+ * its own opcode, with start and end indices, and replays as a single
+ * MARK_SORTED step. Counter-only events (addComparison/addSwap) use their
+ * own opcodes and produce no step.
+ */
+public final class TraceFormat {
+    public static final int MAGIC = 0x53565452; // "SVTR"
+    public static final byte VERSION = 1;
+    public static final int BLOCK_SIZE = 4096;
+    public static final int TRAILER_BYTES = 8 + 8 + 4 + 4;
+    public static final int INDEX_ENTRY_BYTES = 8 + 8 + 8;
+
+    public static final int OP_MARK_SORTED_RANGE = 13;
+    public static final int OP_ADD_COMPARISON = 14;
+    public static final int OP_ADD_SWAP = 15;
+
+    // Opcode byte plus at most three five-byte varints
+    public static final int MAX_EVENT_BYTES = 1 + 3 * 5;
+
+    private TraceFormat() {
+    }
+
+    public static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    public static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
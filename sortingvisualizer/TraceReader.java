@@ -0,0 +1,271 @@
+package sortingvisualizer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Decodes a trace written by {@link TraceWriter} back into sort steps.
+ *
+ * The event section is memory-mapped in windows, so traces larger than a
+ * single mapping (or than the heap) can be replayed. {@link #seek(long)}
+ * jumps to the block containing an event using the block index and decodes
+ * forward from there; it repositions the decoder and counters only; the
+ * array state at that point has to be rebuilt by the caller.
+ */
+public class TraceReader implements Closeable {
+    private static final long WINDOW_SIZE = 64L << 20;
+    private static final SortStep.StepType[] TYPES = SortStep.StepType.values();
+
+    private final FileChannel channel;
+    private final String algorithmName;
+    private final int[] initialArray;
+    private final long eventCount;
+    private final int blockSize;
+    private final long[] blockOffsets;
+    private final long[] blockComparisons;
+    private final long[] blockSwaps;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    private long position = 0;
+    private int previousIndex = 0;
+    private long comparisons = 0;
+    private long swaps = 0;
+
+    public TraceReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < TraceFormat.TRAILER_BYTES + 5) {
+                throw new IOException("Not a sort trace: " + path);
+            }
+            ByteBuffer trailer = readFully(size - TraceFormat.TRAILER_BYTES, TraceFormat.TRAILER_BYTES);
+            long indexOffset = trailer.getLong();
+            eventCount = trailer.getLong();
+            blockSize = trailer.getInt();
+            if (trailer.getInt() != TraceFormat.MAGIC || blockSize <= 0) {
+                throw new IOException("Not a sort trace or the recording was not closed: " + path);
+            }
+
+            int blocks = (int) ((eventCount + blockSize - 1) / blockSize);
+            blockOffsets = new long[blocks];
+            blockComparisons = new long[blocks];
+            blockSwaps = new long[blocks];
+            ByteBuffer index = readFully(indexOffset, blocks * TraceFormat.INDEX_ENTRY_BYTES);
+            for (int i = 0; i < blocks; i++) {
+                blockOffsets[i] = index.getLong();
+                blockComparisons[i] = index.getLong();
+                blockSwaps[i] = index.getLong();
+            }
+
+            map(0);
+            if (window.getInt() != TraceFormat.MAGIC || window.get() != TraceFormat.VERSION) {
+                throw new IOException("Unsupported trace version: " + path);
+            }
+            byte[] name = new byte[readVarInt()];
+            ensure(name.length);
+            window.get(name);
+            algorithmName = new String(name, StandardCharsets.UTF_8);
+            initialArray = new int[readVarInt()];
+            int previous = 0;
+            for (int i = 0; i < initialArray.length; i++) {
+                ensure(5);
+                previous += TraceFormat.unZigZag(readVarInt());
+                initialArray[i] = previous;
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private ByteBuffer readFully(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of trace");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private void map(long offset) throws IOException {
+        long end = channel.size();
+        windowStart = offset;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE, end - offset));
+    }
+
+    // Remaps so at least the given number of bytes (or the rest of the file) is readable
+    private void ensure(int bytes) throws IOException {
+        if (window.remaining() < bytes && windowStart + window.limit() < channel.size()) {
+            map(windowStart + window.position());
+        }
+    }
+
+    private int readVarInt() {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = window.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private int readIndex() {
+        previousIndex += TraceFormat.unZigZag(readVarInt());
+        return previousIndex;
+    }
+
+    public String getAlgorithmName() {
+        return algorithmName;
+    }
+
+    public int[] getInitialArray() {
+        return initialArray.clone();
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    // Events per block; seeking to a multiple of this decodes nothing extra
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    // Number of events consumed so far
+    public long position() {
+        return position;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getSwaps() {
+        return swaps;
+    }
+
+    public boolean hasNext() {
+        return position < eventCount;
+    }
+
+    /**
+     * Positions the decoder just before the given event. Decoding starts at
+     * the enclosing block, so the cost is at most one block of events.
+     */
+    public void seek(long event) throws IOException {
+        if (eventCount == 0)
+            return;
+        long target = Math.max(0, Math.min(event, eventCount));
+        int block = (int) (Math.min(target, eventCount - 1) / blockSize);
+        long offset = blockOffsets[block];
+        if (offset >= windowStart && offset < windowStart + window.limit()) {
+            window.position((int) (offset - windowStart));
+        } else {
+            map(offset);
+        }
+        position = (long) block * blockSize;
+        previousIndex = 0;
+        comparisons = blockComparisons[block];
+        swaps = blockSwaps[block];
+        while (position < target) {
+            decode(null);
+        }
+    }
+
+    /**
+     * Decodes up to {@code maxEvents} events, appending their steps to
+     * {@code out}. Counter-only events advance the position without adding a
+     * step. Returns the number of events consumed.
+     */
+    public int read(StepBuffer out, int maxEvents) throws IOException {
+        int count = (int) Math.min(maxEvents, eventCount - position);
+        for (int i = 0; i < count; i++) {
+            decode(out);
+        }
+        return count;
+    }
+
+    // Decodes one event, appending its step to out unless out is null
+    private void decode(StepBuffer out) throws IOException {
+        if (position % blockSize == 0) {
+            previousIndex = 0;
+        }
+        ensure(TraceFormat.MAX_EVENT_BYTES);
+        int opcode = window.get();
+        position++;
+        int idx1 = -1, idx2 = -1, value = 0;
+        switch (opcode) {
+            case TraceFormat.OP_ADD_COMPARISON:
+                comparisons++;
+                return;
+            case TraceFormat.OP_ADD_SWAP:
+                swaps++;
+                return;
+            case TraceFormat.OP_MARK_SORTED_RANGE:
+                idx1 = readIndex();
+                idx2 = readIndex();
+                if (out != null) {
+                    out.add(SortStep.StepType.MARK_SORTED, idx1, idx2, 0, comparisons, swaps);
+                }
+                return;
+            default:
+                break;
+        }
+        if (opcode < 0 || opcode >= TYPES.length) {
+            throw new IOException("Corrupt trace: unknown opcode " + opcode + " at event " + (position - 1));
+        }
+        SortStep.StepType type = TYPES[opcode];
+        switch (type) {
+            case COMPARE:
+                comparisons++;
+                idx1 = readIndex();
+                idx2 = readIndex();
+                break;
+            case SWAP:
+                swaps++;
+                idx1 = readIndex();
+                idx2 = readIndex();
+                break;
+            case SET_VALUE:
+                idx1 = readIndex();
+                value = TraceFormat.unZigZag(readVarInt());
+                break;
+            case MARK_SORTED:
+            case PIVOT:
+                idx1 = readIndex();
+                break;
+            case CLEAR_HIGHLIGHTS:
+                break;
+            case SUB_ARRAY:
+                idx1 = readIndex();
+                idx2 = readIndex();
+                break;
+            case WORKER_RANGE:
+                value = readVarInt();
+                idx1 = readIndex();
+                idx2 = readIndex();
+                break;
+        }
+        if (out != null) {
+            out.add(type, idx1, idx2, value, comparisons, swaps);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
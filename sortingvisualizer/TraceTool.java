@@ -0,0 +1,96 @@
+package sortingvisualizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Command-line recorder for sort traces.
+ *
+ * Usage:
+ * java -cp bin sortingvisualizer.TraceTool record --algorithm=MERGE_SORT --size=1000000
+ * [--distribution=random] [--seed=42] --out=merge.svt
+ * java -cp bin sortingvisualizer.TraceTool info merge.svt
+ *
+ * Recorded traces are opened in the visualizer with "Open Trace...".
+ */
+public class TraceTool {
+    private static final String USAGE = "Usage: TraceTool record --algorithm=NAME --size=N "
+            + "[--distribution=random] [--seed=N] --out=FILE\n       TraceTool info FILE";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        try {
+            if (args.length >= 1 && args[0].equals("record")) {
+                record(args);
+            } else if (args.length == 2 && args[0].equals("info")) {
+                info(Paths.get(args[1]));
+            } else {
+                throw new IllegalArgumentException("Missing or unknown command");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+    }
+
+    private static void record(String[] args) throws IOException, InterruptedException {
+        AlgorithmRegistry.Entry algorithm = null;
+        int size = -1;
+        InputDistribution distribution = InputDistribution.RANDOM;
+        long seed = 42;
+        Path out = null;
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Unrecognized argument: " + arg);
+            }
+            String key = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "algorithm":
+                    algorithm = AlgorithmRegistry.getDefault().find(value);
+                    break;
+                case "size":
+                    size = Integer.parseInt(value);
+                    break;
+                case "distribution":
+                    distribution = InputDistribution.fromName(value.trim());
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "out":
+                    out = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + key);
+            }
+        }
+        if (algorithm == null || size < 0 || out == null) {
+            throw new IllegalArgumentException("--algorithm, --size and --out are required");
+        }
+
+        int[] array = distribution.generate(size, new Random(seed));
+        long start = System.nanoTime();
+        try (TraceWriter writer = new TraceWriter(out, algorithm.toString(), array)) {
+            algorithm.newInstance().runSort(array, writer);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("Recorded %d events from %s on %d %s elements in %.1f ms%n",
+                    writer.getEventCount(), algorithm, size, distribution, elapsed / 1e6);
+        }
+        System.out.printf("Wrote %s (%d bytes)%n", out, Files.size(out));
+    }
+
+    private static void info(Path path) throws IOException {
+        try (TraceReader reader = new TraceReader(path)) {
+            System.out.println("Algorithm: " + reader.getAlgorithmName());
+            System.out.println("Elements:  " + reader.getInitialArray().length);
+            System.out.println("Events:    " + reader.getEventCount());
+            System.out.println("Bytes:     " + Files.size(path));
+        }
+    }
+}
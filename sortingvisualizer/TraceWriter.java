@@ -0,0 +1,241 @@
+package sortingvisualizer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * SortController that streams every event into a compact trace file instead
+ * of visualizing it, so a sort can run once at full speed and be replayed
+ * later with {@link TraceReader}. See {@link TraceFormat} for the layout.
+ *
+ * Calls are synchronized so parallel algorithms can share one writer. An
+ * I/O failure stops the recording; the sort is cancelled and the error is
+ * rethrown from {@link #close()}.
+ */
+public class TraceWriter implements SortController, Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long flushedBytes = 0;
+    private IOException failure;
+    private boolean closed;
+
+    private long events = 0;
+    private int previousIndex = 0;
+    private long comparisons = 0;
+    private long swaps = 0;
+
+    // Block index: byte offset of each block's first event and the counters just before it
+    private long[] blockOffsets = new long[64];
+    private long[] blockComparisons = new long[64];
+    private long[] blockSwaps = new long[64];
+    private int blocks = 0;
+
+    public TraceWriter(Path path, String algorithmName, int[] initialArray) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(TraceFormat.MAGIC);
+        buffer.put(TraceFormat.VERSION);
+        byte[] name = algorithmName.getBytes(StandardCharsets.UTF_8);
+        putVarInt(name.length);
+        ensure(name.length);
+        buffer.put(name);
+        putVarInt(initialArray.length);
+        int previous = 0;
+        for (int value : initialArray) {
+            ensure(5);
+            putVarInt(TraceFormat.zigZag(value - previous));
+            previous = value;
+        }
+        if (failure != null) {
+            channel.close();
+            throw failure;
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (failure != null) {
+            // Recording has stopped; keep discarding so later puts never overflow
+            buffer.clear();
+            return;
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                flushedBytes += channel.write(buffer);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        buffer.clear();
+    }
+
+    private void putVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void putIndex(int index) {
+        putVarInt(TraceFormat.zigZag(index - previousIndex));
+        previousIndex = index;
+    }
+
+    private void beginEvent(int opcode) {
+        ensure(TraceFormat.MAX_EVENT_BYTES);
+        if (events % TraceFormat.BLOCK_SIZE == 0) {
+            if (blocks == blockOffsets.length) {
+                blockOffsets = Arrays.copyOf(blockOffsets, blocks * 2);
+                blockComparisons = Arrays.copyOf(blockComparisons, blocks * 2);
+                blockSwaps = Arrays.copyOf(blockSwaps, blocks * 2);
+            }
+            blockOffsets[blocks] = flushedBytes + buffer.position();
+            blockComparisons[blocks] = comparisons;
+            blockSwaps[blocks] = swaps;
+            blocks++;
+            previousIndex = 0;
+        }
+        events++;
+        buffer.put((byte) opcode);
+    }
+
+    @Override
+    public synchronized void compare(int idx1, int idx2) {
+        beginEvent(SortStep.StepType.COMPARE.ordinal());
+        comparisons++;
+        putIndex(idx1);
+        putIndex(idx2);
+    }
+
+    @Override
+    public synchronized void swap(int idx1, int idx2) {
+        beginEvent(SortStep.StepType.SWAP.ordinal());
+        swaps++;
+        putIndex(idx1);
+        putIndex(idx2);
+    }
+
+    @Override
+    public synchronized void setValue(int index, int value) {
+        beginEvent(SortStep.StepType.SET_VALUE.ordinal());
+        putIndex(index);
+        putVarInt(TraceFormat.zigZag(value));
+    }
+
+    @Override
+    public synchronized void markSorted(int index) {
+        beginEvent(SortStep.StepType.MARK_SORTED.ordinal());
+        putIndex(index);
+    }
+
+    @Override
+    public synchronized void markSorted(int start, int end) {
+        if (start > end)
+            return;
+        beginEvent(TraceFormat.OP_MARK_SORTED_RANGE);
+        putIndex(start);
+        putIndex(end);
+    }
+
+    @Override
+    public synchronized void clearHighlights() {
+        beginEvent(SortStep.StepType.CLEAR_HIGHLIGHTS.ordinal());
+    }
+
+    @Override
+    public synchronized void pivot(int index) {
+        beginEvent(SortStep.StepType.PIVOT.ordinal());
+        putIndex(index);
+    }
+
+    @Override
+    public synchronized void subArray(int start, int end) {
+        beginEvent(SortStep.StepType.SUB_ARRAY.ordinal());
+        putIndex(start);
+        putIndex(end);
+    }
+
+    @Override
+    public synchronized void workerRange(int lane, int start, int end) {
+        beginEvent(SortStep.StepType.WORKER_RANGE.ordinal());
+        putVarInt(lane);
+        putIndex(start);
+        putIndex(end);
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return failure != null;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public synchronized void addComparison() {
+        beginEvent(TraceFormat.OP_ADD_COMPARISON);
+        comparisons++;
+    }
+
+    // Still one event per comparison, so a replay counts them exactly as they were made
+    @Override
+    public synchronized void addComparisons(long count) {
+        for (long i = 0; i < count; i++) {
+            addComparison();
+        }
+    }
+
+    @Override
+    public synchronized void addSwap() {
+        beginEvent(TraceFormat.OP_ADD_SWAP);
+        swaps++;
+    }
+
+    public synchronized long getEventCount() {
+        return events;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        try {
+            long indexOffset = flushedBytes + buffer.position();
+            for (int i = 0; i < blocks; i++) {
+                ensure(TraceFormat.INDEX_ENTRY_BYTES);
+                buffer.putLong(blockOffsets[i]);
+                buffer.putLong(blockComparisons[i]);
+                buffer.putLong(blockSwaps[i]);
+            }
+            ensure(TraceFormat.TRAILER_BYTES);
+            buffer.putLong(indexOffset);
+            buffer.putLong(events);
+            buffer.putInt(TraceFormat.BLOCK_SIZE);
+            buffer.putInt(TraceFormat.MAGIC);
+            flush();
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package sortingvisualizer.algorithms;
+
+import java.util.Arrays;
+
+import sortingvisualizer.AlgorithmInfo;
+import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.IntArray;
+import sortingvisualizer.SortController;
+
+/**
+ * American flag sort: in-place most-significant-digit radix sort on bytes.
+ *
+ * Each level counts the current byte of every key in the range, then moves
+ * elements into their buckets by following permutation cycles, so it needs
+ * no scratch array, only four levels of 256 bucket bounds. Small buckets
+ * finish with insertion sort. Keys have their sign bit flipped so negative
+ * values order first.
+ *
+ * It works directly on an {@link IntArray}, so it sorts off-heap storage and
+ * arrays longer than 2^31 elements without copying them to the heap. Steps
+ * are reported only while indices fit in an int; longer arrays report
+ * cancellation checks alone.
+ */
+public class AmericanFlagSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(false, true, false, "O(w/8*n)", "O(256*w/8)");
+
+    private static final int BITS = 8;
+    private static final int RADIX = 1 << BITS;
+    private static final int MASK = RADIX - 1;
+    private static final int LEVELS = Integer.SIZE / BITS;
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private IntArray arr;
+    private SortController controller;
+    private boolean reporting;
+    // Bucket bounds per level: starts[level][b] up to starts[level][b + 1]
+    private long[][] starts;
+    private long[] next;
+
+    @Override
+    public String getName() {
+        return "American Flag Sort";
+    }
+
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
+    @Override
+    public void runSort(int[] array, SortController controller) throws InterruptedException {
+        runSort(IntArray.wrap(array), controller);
+    }
+
+    @Override
+    public void runSort(IntArray array, SortController controller) throws InterruptedException {
+        this.arr = array;
+        this.controller = controller;
+        long n = array.length();
+        this.reporting = n <= Integer.MAX_VALUE;
+        this.starts = new long[LEVELS][RADIX + 1];
+        this.next = new long[RADIX];
+
+        sort(0, n, 0);
+        if (reporting && !controller.isCancelled()) {
+            controller.markSorted(0, (int) n - 1);
+        }
+        controller.clearHighlights();
+    }
+
+    private static int digit(int value, int level) {
+        return ((value ^ Integer.MIN_VALUE) >>> (Integer.SIZE - BITS * (level + 1))) & MASK;
+    }
+
+    // Sorts [from, to) on the byte at level and below
+    private void sort(long from, long to, int level) throws InterruptedException {
+        if (controller.isCancelled())
+            return;
+        if (to - from < INSERTION_SORT_THRESHOLD) {
+            insertionSort(from, to);
+            return;
+        }
+        if (reporting) {
+            controller.subArray((int) from, (int) to - 1);
+        }
+
+        long[] start = starts[level];
+        Arrays.fill(start, 0);
+        for (long i = from; i < to; i++) {
+            start[digit(arr.get(i), level) + 1]++;
+        }
+        start[0] = from;
+        for (int b = 0; b < RADIX; b++) {
+            start[b + 1] += start[b];
+        }
+        System.arraycopy(start, 0, next, 0, RADIX);
+
+        // Each element taken out of place is carried to its bucket, displacing
+        // the element there, until one that belongs in bucket b comes back
+        for (int b = 0; b < RADIX; b++) {
+            long end = start[b + 1];
+            while (next[b] < end) {
+                if (controller.isCancelled())
+                    return;
+                int value = arr.get(next[b]);
+                int d = digit(value, level);
+                if (d == b) {
+                    next[b]++;
+                    continue;
+                }
+                while (d != b) {
+                    long pos = next[d]++;
+                    int displaced = arr.get(pos);
+                    set(pos, value);
+                    value = displaced;
+                    d = digit(value, level);
+                }
+                set(next[b]++, value);
+            }
+        }
+
+        if (level + 1 < LEVELS) {
+            for (int b = 0; b < RADIX; b++) {
+                long lo = start[b];
+                long hi = start[b + 1];
+                if (hi - lo > 1) {
+                    sort(lo, hi, level + 1);
+                }
+            }
+        }
+    }
+
+    private void insertionSort(long from, long to) throws InterruptedException {
+        for (long i = from + 1; i < to; i++) {
+            int key = arr.get(i);
+            long j = i - 1;
+            while (j >= from) {
+                if (reporting) {
+                    controller.compare((int) j, (int) i);
+                } else {
+                    controller.addComparison();
+                }
+                int value = arr.get(j);
+                if (value <= key)
+                    break;
+                set(j + 1, value);
+                j--;
+            }
+            if (j + 1 != i) {
+                set(j + 1, key);
+            }
+        }
+    }
+
+    private void set(long index, int value) throws InterruptedException {
+        arr.set(index, value);
+        if (reporting) {
+            controller.setValue((int) index, value);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package sortingvisualizer.algorithms;
+
+import sortingvisualizer.AlgorithmInfo;
+import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.SortController;
+
+/**
+ * Bitonic sorting network, run one layer at a time.
+ *
+ * Every comparator puts the smaller value first: each merge stage starts
+ * with a layer that compares mirrored positions within blocks of k elements
+ * and continues with half-cleaners of shrinking distance. Lengths that are
+ * not a power of two behave as if padded with +infinity at the end, so
+ * comparators that would reach past the array are simply skipped.
+ *
+ * Each layer shows the blocks it works on as worker lanes while there are at
+ * most {@link #MAX_LANES} of them, so the network appears as columns of
+ * compare-exchanges that narrow with every layer. Small fixed-size arrays
+ * sort faster through {@link sortingvisualizer.SortingNetwork}.
+ */
+public class BitonicSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(false, true, false, "O(n log^2 n)", "O(1)");
+
+    // SortPanel distinguishes this many lane colours
+    private static final int MAX_LANES = 64;
+
+    @Override
+    public String getName() {
+        return "Bitonic Sort";
+    }
+
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
+    @Override
+    public void runSort(int[] array, SortController controller) throws InterruptedException {
+        int n = array.length;
+        int p = 1;
+        while (p < n) {
+            p <<= 1;
+        }
+        int lanes = 0;
+        for (int k = 2; k <= p; k <<= 1) {
+            lanes = showBlocks(n, k, lanes, controller);
+            // Mirror layer: i against its reflection within the block of k
+            for (int i = 0; i < n; i++) {
+                int l = i ^ (k - 1);
+                if (l > i && l < n && !compareExchange(array, i, l, controller))
+                    return;
+            }
+            for (int j = k >> 2; j > 0; j >>= 1) {
+                lanes = showBlocks(n, 2 * j, lanes, controller);
+                for (int i = 0; i < n; i++) {
+                    int l = i | j;
+                    if ((i & j) == 0 && l < n && !compareExchange(array, i, l, controller))
+                        return;
+                }
+            }
+        }
+        controller.clearHighlights();
+        controller.markSorted(0, n - 1);
+    }
+
+    private static boolean compareExchange(int[] array, int i, int l, SortController controller)
+            throws InterruptedException {
+        if (controller.isCancelled())
+            return false;
+        controller.compare(i, l);
+        if (array[i] > array[l]) {
+            int temp = array[i];
+            array[i] = array[l];
+            array[l] = temp;
+            controller.swap(i, l);
+        }
+        return true;
+    }
+
+    // Colours each block of the coming layer as its own lane; returns the lanes now shown
+    private static int showBlocks(int n, int blockSize, int shown, SortController controller)
+            throws InterruptedException {
+        int blocks = (n + blockSize - 1) / blockSize;
+        if (blocks > MAX_LANES) {
+            blocks = 0;
+        }
+        for (int b = 0; b < blocks; b++) {
+            controller.workerRange(b, b * blockSize, Math.min(n, (b + 1) * blockSize) - 1);
+        }
+        for (int b = blocks; b < shown; b++) {
+            controller.workerRange(b, -1, -1);
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,308 @@
+package sortingvisualizer.algorithms;
+
+import sortingvisualizer.AlgorithmInfo;
+import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.SortController;
+
+/**
+ * BlockQuicksort, after Edelkamp and Weiss: quicksort whose partition does
+ * not branch on comparisons.
+ *
+ * Partitioning scans a block of {@link #BLOCK} elements from each end and
+ * records, without branching, the offsets of the elements that are on the
+ * wrong side of the pivot: the offset is always written and the count only
+ * advances for a misplaced element. The two offset buffers are then emptied
+ * by swapping pairs, Hoare-style, and a side scans its next block once its
+ * buffer is empty. Each element is compared once and only misplaced ones
+ * move, so random input neither mispredicts branches nor does Lomuto's
+ * swap per smaller element.
+ *
+ * Pivots are the median of three, or the ninther above
+ * {@link #NINTHER_THRESHOLD} elements. Small ranges finish with insertion
+ * sort, the smaller side is recursed into, and after 2 log2(n) levels a range
+ * falls back to heapsort, so the worst case is O(n log n).
+ *
+ * Each block scan is reported once, as a worker lane over the block plus its
+ * comparisons counted in bulk; every swap is still reported so the panel's
+ * copy of the array stays in step.
+ */
+public class BlockQuickSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(false, true, false, "O(n log n)", "O(log n)");
+
+    private static final int BLOCK = 128;
+    private static final int INSERTION_SORT_THRESHOLD = 20;
+    private static final int NINTHER_THRESHOLD = 128;
+
+    // Lanes showing the block being scanned on each side
+    private static final int LEFT_LANE = 0;
+    private static final int RIGHT_LANE = 1;
+
+    private int[] arr;
+    private SortController controller;
+    private final int[] offsetsLeft = new int[BLOCK];
+    private final int[] offsetsRight = new int[BLOCK];
+
+    @Override
+    public String getName() {
+        return "Block Quick Sort";
+    }
+
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
+    @Override
+    public void runSort(int[] array, SortController controller) throws InterruptedException {
+        this.arr = array;
+        this.controller = controller;
+        if (array.length > 0) {
+            sort(0, array.length, 2 * (31 - Integer.numberOfLeadingZeros(array.length)));
+        }
+        controller.clearHighlights();
+    }
+
+    // Sorts [begin, end)
+    private void sort(int begin, int end, int depthLimit) throws InterruptedException {
+        while (end - begin > INSERTION_SORT_THRESHOLD) {
+            if (controller.isCancelled())
+                return;
+            if (depthLimit-- == 0) {
+                heapSort(begin, end);
+                return;
+            }
+            controller.subArray(begin, end - 1);
+            int pivot = partition(begin, end, choosePivot(begin, end));
+            if (pivot < 0)
+                return;
+            controller.markSorted(pivot);
+            if (pivot - begin < end - pivot - 1) {
+                sort(begin, pivot, depthLimit);
+                begin = pivot + 1;
+            } else {
+                sort(pivot + 1, end, depthLimit);
+                end = pivot;
+            }
+        }
+        insertionSort(begin, end);
+    }
+
+    private int choosePivot(int begin, int end) throws InterruptedException {
+        int size = end - begin;
+        int mid = begin + size / 2;
+        if (size <= NINTHER_THRESHOLD)
+            return median(begin, mid, end - 1);
+        int step = size / 8;
+        return median(median(begin, begin + step, begin + 2 * step), median(mid - step, mid, mid + step),
+                median(end - 1 - 2 * step, end - 1 - step, end - 1));
+    }
+
+    // Index of the median of three elements; nothing moves
+    private int median(int a, int b, int c) throws InterruptedException {
+        controller.compare(a, b);
+        if (arr[a] < arr[b]) {
+            controller.compare(b, c);
+            if (arr[b] < arr[c])
+                return b;
+            controller.compare(a, c);
+            return arr[a] < arr[c] ? c : a;
+        }
+        controller.compare(a, c);
+        if (arr[a] < arr[c])
+            return a;
+        controller.compare(b, c);
+        return arr[b] < arr[c] ? c : b;
+    }
+
+    /*
+     * Partitions [begin, end) around arr[pivotIndex] and returns the pivot's
+     * final index, or -1 if cancelled. Follows hoare_block_partition_simple
+     * from the BlockQuicksort paper, with last inclusive.
+     */
+    private int partition(int begin, int end, int pivotIndex) throws InterruptedException {
+        int[] a = arr;
+        int[] offsetsLeft = this.offsetsLeft, offsetsRight = this.offsetsRight;
+        int pivotPosition = end - 1;
+        swap(pivotIndex, pivotPosition);
+        controller.pivot(pivotPosition);
+        int pivot = a[pivotPosition];
+        int first = begin;
+        int last = end - 2;
+
+        int numLeft = 0, numRight = 0, startLeft = 0, startRight = 0;
+        while (last - first + 1 > 2 * BLOCK) {
+            if (controller.isCancelled())
+                return -1;
+            if (numLeft == 0) {
+                startLeft = 0;
+                numLeft = scanLeft(a, first, BLOCK, pivot, offsetsLeft);
+            }
+            if (numRight == 0) {
+                startRight = 0;
+                numRight = scanRight(a, last, BLOCK, pivot, offsetsRight);
+            }
+            int num = Math.min(numLeft, numRight);
+            for (int j = 0; j < num; j++) {
+                swap(first + offsetsLeft[startLeft + j], last - offsetsRight[startRight + j]);
+            }
+            numLeft -= num;
+            numRight -= num;
+            startLeft += num;
+            startRight += num;
+            first += numLeft == 0 ? BLOCK : 0;
+            last -= numRight == 0 ? BLOCK : 0;
+        }
+
+        // At most two blocks remain, one of which may be partly scanned already
+        int shiftLeft, shiftRight;
+        if (numLeft == 0 && numRight == 0) {
+            shiftLeft = (last - first + 1) / 2;
+            shiftRight = last - first + 1 - shiftLeft;
+            startLeft = 0;
+            startRight = 0;
+            numLeft = scanLeft(a, first, shiftLeft, pivot, offsetsLeft);
+            numRight = scanRight(a, last, shiftRight, pivot, offsetsRight);
+        } else if (numRight != 0) {
+            shiftLeft = last - first + 1 - BLOCK;
+            shiftRight = BLOCK;
+            startLeft = 0;
+            numLeft = scanLeft(a, first, shiftLeft, pivot, offsetsLeft);
+        } else {
+            shiftLeft = BLOCK;
+            shiftRight = last - first + 1 - BLOCK;
+            startRight = 0;
+            numRight = scanRight(a, last, shiftRight, pivot, offsetsRight);
+        }
+        int num = Math.min(numLeft, numRight);
+        for (int j = 0; j < num; j++) {
+            swap(first + offsetsLeft[startLeft + j], last - offsetsRight[startRight + j]);
+        }
+        numLeft -= num;
+        numRight -= num;
+        startLeft += num;
+        startRight += num;
+        first += numLeft == 0 ? shiftLeft : 0;
+        last -= numRight == 0 ? shiftRight : 0;
+        controller.workerRange(LEFT_LANE, -1, -1);
+        controller.workerRange(RIGHT_LANE, -1, -1);
+
+        // Misplaced elements left in one buffer move to that side's far end
+        int split;
+        if (numLeft != 0) {
+            int lower = startLeft + numLeft - 1;
+            int upper = last - first;
+            while (lower >= startLeft && offsetsLeft[lower] == upper) {
+                upper--;
+                lower--;
+            }
+            while (lower >= startLeft) {
+                swap(first + upper--, first + offsetsLeft[lower--]);
+            }
+            split = first + upper + 1;
+        } else if (numRight != 0) {
+            int lower = startRight + numRight - 1;
+            int upper = last - first;
+            while (lower >= startRight && offsetsRight[lower] == upper) {
+                upper--;
+                lower--;
+            }
+            while (lower >= startRight) {
+                swap(last - upper--, last - offsetsRight[lower--]);
+            }
+            split = last - upper;
+        } else {
+            split = first;
+        }
+        swap(pivotPosition, split);
+        return split;
+    }
+
+    // Offsets of the elements in a[first, first + count) that belong right of the pivot
+    private int scanLeft(int[] a, int first, int count, int pivot, int[] offsets) throws InterruptedException {
+        int num = 0;
+        for (int j = 0; j < count; j++) {
+            offsets[num] = j;
+            num += a[first + j] >= pivot ? 1 : 0;
+        }
+        reportBlock(LEFT_LANE, first, first + count - 1, count);
+        return num;
+    }
+
+    // Offsets back from last of the elements in (last - count, last] that belong left of the pivot
+    private int scanRight(int[] a, int last, int count, int pivot, int[] offsets) throws InterruptedException {
+        int num = 0;
+        for (int j = 0; j < count; j++) {
+            offsets[num] = j;
+            num += pivot >= a[last - j] ? 1 : 0;
+        }
+        reportBlock(RIGHT_LANE, last - count + 1, last, count);
+        return num;
+    }
+
+    private void reportBlock(int lane, int from, int to, int comparisons) throws InterruptedException {
+        if (comparisons == 0)
+            return;
+        controller.workerRange(lane, from, to);
+        controller.addComparisons(comparisons);
+    }
+
+    private void swap(int i, int j) throws InterruptedException {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+        controller.swap(i, j);
+    }
+
+    private void insertionSort(int begin, int end) throws InterruptedException {
+        for (int i = begin + 1; i < end; i++) {
+            if (controller.isCancelled())
+                return;
+            int key = arr[i];
+            int j = i - 1;
+            while (j >= begin) {
+                controller.compare(j, j + 1);
+                if (arr[j] <= key)
+                    break;
+                arr[j + 1] = arr[j];
+                controller.setValue(j + 1, arr[j]);
+                j--;
+            }
+            arr[j + 1] = key;
+            controller.setValue(j + 1, key);
+        }
+        controller.markSorted(begin, end - 1);
+    }
+
+    private void heapSort(int begin, int end) throws InterruptedException {
+        int n = end - begin;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(begin, i, n);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            if (controller.isCancelled())
+                return;
+            swap(begin, begin + i);
+            controller.markSorted(begin + i);
+            siftDown(begin, 0, i);
+        }
+        if (n > 0) {
+            controller.markSorted(begin);
+        }
+    }
+
+    private void siftDown(int begin, int root, int n) throws InterruptedException {
+        while (2 * root + 1 < n) {
+            int child = 2 * root + 1;
+            if (child + 1 < n) {
+                controller.compare(begin + child, begin + child + 1);
+                if (arr[begin + child] < arr[begin + child + 1])
+                    child++;
+            }
+            controller.compare(begin + root, begin + child);
+            if (arr[begin + root] >= arr[begin + child])
+                return;
+            swap(begin + root, begin + child);
+            root = child;
+        }
+    }
+}
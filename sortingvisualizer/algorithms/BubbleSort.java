@@ -1,15 +1,22 @@
 package sortingvisualizer.algorithms;
 
+import sortingvisualizer.AlgorithmInfo;
 import sortingvisualizer.ISortingAlgorithm;
 import sortingvisualizer.SortController;
 
 public class BubbleSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(true, true, false, "O(n^2)", "O(1)");
 
     @Override
     public String getName() {
         return "Bubble Sort";
     }
 
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
     @Override
     public void runSort(int[] array, SortController controller) throws InterruptedException {
         int n = array.length;
@@ -1,16 +1,23 @@
 package sortingvisualizer.algorithms;
 
+import sortingvisualizer.AlgorithmInfo;
 import sortingvisualizer.ISortingAlgorithm;
 import sortingvisualizer.SortController;
 import java.util.Arrays;
 
 public class CountingSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(true, false, false, "O(n + k)", "O(n + k)");
 
     @Override
     public String getName() {
         return "Counting Sort";
     }
 
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
     @Override
     public void runSort(int[] array, SortController controller) throws InterruptedException {
         if (array.length == 0)
@@ -1,82 +1,107 @@
 package sortingvisualizer.algorithms;
 
+import sortingvisualizer.AlgorithmInfo;
 import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.IntArray;
 import sortingvisualizer.SortController;
 
 public class HeapSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(false, true, false, "O(n log n)", "O(1)");
 
     @Override
     public String getName() {
         return "Heap Sort";
     }
 
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
     @Override
     public void runSort(int[] array, SortController controller) {
-        int n = array.length;
+        runSort(IntArray.wrap(array), controller);
+    }
+
+    // Steps are reported only while indices fit in an int
+    @Override
+    public void runSort(IntArray array, SortController controller) {
+        long n = array.length();
+        boolean reporting = n <= Integer.MAX_VALUE;
 
         // Build heap (rearrange array)
-        for (int i = n / 2 - 1; i >= 0; i--) {
+        for (long i = n / 2 - 1; i >= 0; i--) {
             if (controller.isCancelled()) return;
-            heapify(array, n, i, controller);
+            heapify(array, n, i, controller, reporting);
         }
 
         // One by one extract an element from heap
-        for (int i = n - 1; i > 0; i--) {
+        for (long i = n - 1; i > 0; i--) {
             if (controller.isCancelled()) return;
             
             // Move current root to end
             try {
-                controller.swap(0, i);
-                int temp = array[0];
-                array[0] = array[i];
-                array[i] = temp;
-                
-                controller.markSorted(i);
+                if (reporting)
+                    controller.swap(0, (int) i);
+                else
+                    controller.addSwap();
+                array.swap(0, i);
+
+                if (reporting)
+                    controller.markSorted((int) i);
             } catch (InterruptedException e) {
                 return;
             }
 
             // call max heapify on the reduced heap
-            heapify(array, i, 0, controller);
+            heapify(array, i, 0, controller, reporting);
         }
         try {
-            controller.markSorted(0);
+            if (reporting)
+                controller.markSorted(0);
         } catch (InterruptedException e) {
             return;
         }
     }
 
-    void heapify(int[] array, int n, int i, SortController controller) {
+    void heapify(IntArray array, long n, long i, SortController controller, boolean reporting) {
         if (controller.isCancelled()) return;
 
-        int largest = i; // Initialize largest as root
-        int l = 2 * i + 1; // left = 2*i + 1
-        int r = 2 * i + 2; // right = 2*i + 2
+        long largest = i; // Initialize largest as root
+        long l = 2 * i + 1; // left = 2*i + 1
+        long r = 2 * i + 2; // right = 2*i + 2
 
         try {
             // If left child is larger than root
             if (l < n) {
-                controller.compare(l, largest);
-                if (array[l] > array[largest])
+                if (reporting)
+                    controller.compare((int) l, (int) largest);
+                else
+                    controller.addComparison();
+                if (array.get(l) > array.get(largest))
                     largest = l;
             }
 
             // If right child is larger than largest so far
             if (r < n) {
-                controller.compare(r, largest);
-                if (array[r] > array[largest])
+                if (reporting)
+                    controller.compare((int) r, (int) largest);
+                else
+                    controller.addComparison();
+                if (array.get(r) > array.get(largest))
                     largest = r;
             }
 
             // If largest is not root
             if (largest != i) {
-                controller.swap(i, largest);
-                int swap = array[i];
-                array[i] = array[largest];
-                array[largest] = swap;
+                if (reporting)
+                    controller.swap((int) i, (int) largest);
+                else
+                    controller.addSwap();
+                array.swap(i, largest);
 
                 // Recursively heapify the affected sub-tree
-                heapify(array, n, largest, controller);
+                heapify(array, n, largest, controller, reporting);
             }
         } catch (InterruptedException e) {
             // Thread interrupted, just return
@@ -1,42 +1,68 @@
 package sortingvisualizer.algorithms;
 
+import sortingvisualizer.AlgorithmInfo;
 import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.IntArray;
 import sortingvisualizer.SortController;
 
 public class InsertionSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(true, true, false, "O(n^2)", "O(1)");
 
     @Override
     public String getName() {
         return "Insertion Sort";
     }
 
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
     @Override
     public void runSort(int[] array, SortController controller) throws InterruptedException {
-        int n = array.length;
-        for (int i = 0; i < n; ++i) {
+        runSort(IntArray.wrap(array), controller);
+    }
+
+    // Steps are reported only while indices fit in an int
+    @Override
+    public void runSort(IntArray array, SortController controller) throws InterruptedException {
+        long n = array.length();
+        boolean reporting = n <= Integer.MAX_VALUE;
+        for (long i = 0; i < n; ++i) {
             if (controller.isCancelled())
                 return;
             if (i == 0) {
-                controller.markSorted(i);
+                if (reporting)
+                    controller.markSorted(0);
                 continue;
             }
-            int key = array[i];
-            int j = i - 1;
-            controller.compare(i, i); // Element to insert
+            int key = array.get(i);
+            long j = i - 1;
+            if (reporting)
+                controller.compare((int) i, (int) i); // Element to insert
+            else
+                controller.addComparison();
 
-            while (j >= 0 && array[j] > key) {
+            while (j >= 0 && array.get(j) > key) {
                 if (controller.isCancelled())
                     return;
-                controller.compare(j, i); // Compare with key's original pos
-                array[j + 1] = array[j];
-                controller.setValue(j + 1, array[j]); // Visualize shift
+                int value = array.get(j);
+                array.set(j + 1, value);
+                if (reporting) {
+                    controller.compare((int) j, (int) i); // Compare with key's original pos
+                    controller.setValue((int) j + 1, value); // Visualize shift
+                } else {
+                    controller.addComparison();
+                }
                 j = j - 1;
             }
-            array[j + 1] = key;
-            controller.setValue(j + 1, key); // Place key
+            array.set(j + 1, key);
+            if (reporting) {
+                controller.setValue((int) j + 1, key); // Place key
 
-            for (int k = 0; k <= i; k++)
-                controller.markSorted(k); // Mark sorted portion
+                // 0..i-1 are already marked and marks stay with the index, so only i is new
+                controller.markSorted((int) i);
+            }
         }
         controller.clearHighlights();
     }
@@ -0,0 +1,119 @@
+package sortingvisualizer.algorithms;
+
+import sortingvisualizer.AlgorithmInfo;
+import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.SortController;
+
+/**
+ * Least-significant-digit radix sort over 2^k-ary digits (bytes by default)
+ * using shifts and masks.
+ *
+ * One read pass builds the histograms of every digit at once. Each digit
+ * then scatters between the array and a single ping-pong buffer, and a digit
+ * whose histogram has a single bucket holding every element is skipped, so
+ * e.g. values below 2^16 sort in two passes. Keys have their sign bit flipped
+ * so negative values order before positive ones over the full int range.
+ *
+ * Every scattered element is reported as a write to its destination index,
+ * so the panel shows the array as it stands after each pass, whichever
+ * buffer physically holds it.
+ */
+public class LsdRadixSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(true, false, false, "O(w/b*n)", "O(n + 2^b)");
+
+    public static final int DEFAULT_BITS_PER_DIGIT = 8;
+
+    private final int bits;
+    private final int radix;
+    private final int digits;
+    private int[] buffer = new int[0];
+
+    public LsdRadixSort() {
+        this(DEFAULT_BITS_PER_DIGIT);
+    }
+
+    // bitsPerDigit between 1 and 16; 8 gives 256 buckets and four passes
+    public LsdRadixSort(int bitsPerDigit) {
+        if (bitsPerDigit < 1 || bitsPerDigit > 16) {
+            throw new IllegalArgumentException("bitsPerDigit must be between 1 and 16: " + bitsPerDigit);
+        }
+        this.bits = bitsPerDigit;
+        this.radix = 1 << bitsPerDigit;
+        this.digits = (Integer.SIZE + bitsPerDigit - 1) / bitsPerDigit;
+    }
+
+    @Override
+    public String getName() {
+        return "LSD Radix Sort";
+    }
+
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
+    @Override
+    public void runSort(int[] array, SortController controller) throws InterruptedException {
+        int n = array.length;
+        // Fewer than two elements are sorted already; only the epilogue runs
+        if (n >= 2 && !sortDigits(array, controller))
+            return;
+        controller.markSorted(0, n - 1);
+        controller.clearHighlights();
+    }
+
+    // Returns false if the run was cancelled part way
+    private boolean sortDigits(int[] array, SortController controller) throws InterruptedException {
+        int n = array.length;
+        int mask = radix - 1;
+        int[][] counts = new int[digits][radix];
+        for (int i = 0; i < n; i++) {
+            if (controller.isCancelled())
+                return false;
+            int key = array[i] ^ Integer.MIN_VALUE;
+            for (int d = 0; d < digits; d++) {
+                counts[d][(key >>> (d * bits)) & mask]++;
+            }
+        }
+
+        if (buffer.length < n) {
+            buffer = new int[n];
+        }
+        int[] src = array;
+        int[] dst = buffer;
+        for (int d = 0; d < digits; d++) {
+            int shift = d * bits;
+            int[] count = counts[d];
+            // Every element has the same digit here, so this pass would not move anything
+            if (count[((src[0] ^ Integer.MIN_VALUE) >>> shift) & mask] == n)
+                continue;
+
+            // Turn the histogram into bucket start offsets
+            int sum = 0;
+            for (int b = 0; b < radix; b++) {
+                int c = count[b];
+                count[b] = sum;
+                sum += c;
+            }
+
+            controller.subArray(0, n - 1);
+            for (int i = 0; i < n; i++) {
+                if (controller.isCancelled())
+                    return false;
+                int value = src[i];
+                int pos = count[((value ^ Integer.MIN_VALUE) >>> shift) & mask]++;
+                dst[pos] = value;
+                controller.setValue(pos, value);
+            }
+            controller.clearHighlights();
+
+            int[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != array) {
+            System.arraycopy(src, 0, array, 0, n);
+        }
+        return true;
+    }
+}
@@ -1,15 +1,22 @@
 package sortingvisualizer.algorithms;
 
+import sortingvisualizer.AlgorithmInfo;
 import sortingvisualizer.ISortingAlgorithm;
 import sortingvisualizer.SortController;
 
 public class MergeSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(true, false, false, "O(n log n)", "O(n)");
 
     @Override
     public String getName() {
         return "Merge Sort";
     }
 
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
     @Override
     public void runSort(int[] array, SortController controller) throws InterruptedException {
         mergeSortRecursive(array, 0, array.length - 1, controller);
@@ -0,0 +1,140 @@
+package sortingvisualizer.algorithms;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import sortingvisualizer.AlgorithmInfo;
+import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.SortController;
+import sortingvisualizer.SynchronizedSortController;
+
+public class ParallelMergeSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(true, false, true, "O(n log n)", "O(n)");
+
+    private final ForkJoinPool pool;
+
+    public ParallelMergeSort() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelMergeSort(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public String getName() {
+        return "Parallel Merge Sort";
+    }
+
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
+    @Override
+    public void runSort(int[] array, SortController controller) throws InterruptedException {
+        if (array.length > 1) {
+            SortController shared = SynchronizedSortController.wrap(controller);
+            // One scratch buffer for the whole sort; tasks only touch their own slice of it
+            int[] buffer = new int[array.length];
+            int cutoff = ParallelSupport.sequentialCutoff(array.length, pool);
+            ParallelSupport.invoke(pool, new MergeTask(array, buffer, 0, array.length - 1, cutoff, shared));
+        } else if (array.length == 1) {
+            controller.markSorted(0);
+        }
+        controller.clearHighlights();
+    }
+
+    private static class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] arr;
+        private final int[] buffer;
+        private final int l;
+        private final int r;
+        private final int cutoff;
+        private final SortController controller;
+
+        MergeTask(int[] arr, int[] buffer, int l, int r, int cutoff, SortController controller) {
+            this.arr = arr;
+            this.buffer = buffer;
+            this.l = l;
+            this.r = r;
+            this.cutoff = cutoff;
+            this.controller = controller;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                if (controller.isCancelled())
+                    return;
+                controller.workerRange(ParallelSupport.currentLane(), l, r);
+                if (r - l + 1 <= cutoff) {
+                    mergeSortSequential(l, r);
+                    return;
+                }
+                int m = l + (r - l) / 2;
+                invokeAll(new MergeTask(arr, buffer, l, m, cutoff, controller),
+                        new MergeTask(arr, buffer, m + 1, r, cutoff, controller));
+                if (controller.isCancelled())
+                    return;
+                controller.workerRange(ParallelSupport.currentLane(), l, r);
+                merge(l, m, r);
+            } catch (InterruptedException e) {
+                throw new CompletionException(e);
+            }
+        }
+
+        private void mergeSortSequential(int lo, int hi) throws InterruptedException {
+            if (lo < hi) {
+                if (controller.isCancelled())
+                    return;
+                int m = lo + (hi - lo) / 2;
+                mergeSortSequential(lo, m);
+                mergeSortSequential(m + 1, hi);
+                if (controller.isCancelled())
+                    return;
+                merge(lo, m, hi);
+            } else if (lo == hi) {
+                controller.markSorted(lo);
+            }
+        }
+
+        private void merge(int lo, int m, int hi) throws InterruptedException {
+            System.arraycopy(arr, lo, buffer, lo, hi - lo + 1);
+
+            int i = lo, j = m + 1, k = lo;
+            while (i <= m && j <= hi) {
+                if (controller.isCancelled())
+                    return;
+                controller.compare(i, j);
+                if (buffer[i] <= buffer[j]) {
+                    arr[k] = buffer[i++];
+                } else {
+                    arr[k] = buffer[j++];
+                }
+                controller.setValue(k, arr[k]);
+                controller.markSorted(k);
+                k++;
+            }
+            while (i <= m) {
+                if (controller.isCancelled())
+                    return;
+                arr[k] = buffer[i++];
+                controller.setValue(k, arr[k]);
+                controller.markSorted(k);
+                k++;
+            }
+            while (j <= hi) {
+                if (controller.isCancelled())
+                    return;
+                arr[k] = buffer[j++];
+                controller.setValue(k, arr[k]);
+                controller.markSorted(k);
+                k++;
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package sortingvisualizer.algorithms;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+
+import sortingvisualizer.AlgorithmInfo;
+import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.SortController;
+import sortingvisualizer.SynchronizedSortController;
+
+public class ParallelQuickSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(false, true, true, "O(n log n)", "O(n^2)", "O(log n)");
+
+    private final ForkJoinPool pool;
+
+    public ParallelQuickSort() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelQuickSort(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public String getName() {
+        return "Parallel Quick Sort";
+    }
+
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
+    @Override
+    public void runSort(int[] array, SortController controller) throws InterruptedException {
+        if (array.length > 0) {
+            SortController shared = SynchronizedSortController.wrap(controller);
+            int cutoff = ParallelSupport.sequentialCutoff(array.length, pool);
+            ParallelSupport.invoke(pool, new QuickTask(array, 0, array.length - 1, cutoff, shared));
+        }
+        controller.clearHighlights();
+    }
+
+    private static class QuickTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] arr;
+        private final int low;
+        private final int high;
+        private final int cutoff;
+        private final SortController controller;
+
+        QuickTask(int[] arr, int low, int high, int cutoff, SortController controller) {
+            this.arr = arr;
+            this.low = low;
+            this.high = high;
+            this.cutoff = cutoff;
+            this.controller = controller;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                if (controller.isCancelled())
+                    return;
+                if (high - low + 1 <= cutoff) {
+                    quickSortSequential(low, high);
+                    return;
+                }
+                long bounds = partition(low, high);
+                if (bounds < 0)
+                    return;
+                int lt = (int) (bounds >>> 32);
+                int gt = (int) bounds;
+                invokeAll(new QuickTask(arr, low, lt - 1, cutoff, controller),
+                        new QuickTask(arr, gt + 1, high, cutoff, controller));
+            } catch (InterruptedException e) {
+                throw new CompletionException(e);
+            }
+        }
+
+        // Recurses into the smaller side and loops on the larger to bound stack depth
+        private void quickSortSequential(int lo, int hi) throws InterruptedException {
+            while (lo < hi) {
+                if (controller.isCancelled())
+                    return;
+                long bounds = partition(lo, hi);
+                if (bounds < 0)
+                    return;
+                int lt = (int) (bounds >>> 32);
+                int gt = (int) bounds;
+                if (lt - lo < hi - gt) {
+                    quickSortSequential(lo, lt - 1);
+                    lo = gt + 1;
+                } else {
+                    quickSortSequential(gt + 1, hi);
+                    hi = lt - 1;
+                }
+            }
+            if (lo == hi) {
+                controller.markSorted(lo);
+            }
+        }
+
+        /**
+         * Three-way partition around a random pivot, so presorted input and
+         * runs of equal keys do not degrade to quadratic time. Returns the
+         * bounds of the pivot-equal block packed as (lt << 32) | gt, or -1 if
+         * the sort was cancelled.
+         */
+        private long partition(int lo, int hi) throws InterruptedException {
+            controller.workerRange(ParallelSupport.currentLane(), lo, hi);
+
+            int p = ThreadLocalRandom.current().nextInt(lo, hi + 1);
+            swap(lo, p);
+            int pivot = arr[lo];
+            controller.pivot(lo);
+
+            int lt = lo, i = lo + 1, gt = hi;
+            while (i <= gt) {
+                if (controller.isCancelled())
+                    return -1;
+                controller.compare(i, lt);
+                if (arr[i] < pivot) {
+                    swap(lt++, i++);
+                } else if (arr[i] > pivot) {
+                    swap(i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            controller.markSorted(lt, gt);
+            return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+        }
+
+        private void swap(int a, int b) throws InterruptedException {
+            if (a == b)
+                return;
+            int temp = arr[a];
+            arr[a] = arr[b];
+            arr[b] = temp;
+            controller.swap(a, b);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package sortingvisualizer.algorithms;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import sortingvisualizer.AlgorithmInfo;
+import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.SortController;
+import sortingvisualizer.SynchronizedSortController;
+
+/**
+ * Parallel counting / radix sort.
+ *
+ * The array is split into one chunk per worker. Keys are offset by the
+ * minimum, so only the bits that actually vary are sorted: a value range of
+ * up to 2^16 is a single counting-sort pass, wider ranges take LSD passes of
+ * at most 11 bits (three for the full int range). Each pass has every chunk
+ * build its own histogram, then folds them into per-chunk bucket offsets
+ * (bucket-major, chunk-minor, so the scatter stays stable), and then has
+ * every chunk scatter its elements without any synchronisation, into a
+ * single ping-pong buffer.
+ *
+ * The time spent in the range, histogram, prefix, scatter and copy phases is
+ * reported through {@link SortController#phaseCompleted}.
+ */
+public class ParallelRadixSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(true, false, true, "O(w/b*n)", "O(n + p*2^b)");
+
+    // Value ranges up to this many bits are sorted in one counting pass
+    private static final int COUNTING_SORT_BITS = 16;
+    private static final int MAX_DIGIT_BITS = 11;
+
+    private final ForkJoinPool pool;
+
+    public ParallelRadixSort() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelRadixSort(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public String getName() {
+        return "Parallel Radix Sort";
+    }
+
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
+    @Override
+    public void runSort(int[] array, SortController controller) throws InterruptedException {
+        int n = array.length;
+        if (n < 2) {
+            markAllSorted(array, controller);
+            return;
+        }
+        SortController shared = SynchronizedSortController.wrap(controller);
+        int chunks = Math.max(1, Math.min(pool.getParallelism(), n / 1024));
+
+        long start = System.nanoTime();
+        int[] chunkMin = new int[chunks];
+        int[] chunkMax = new int[chunks];
+        ParallelSupport.forEachChunk(pool, chunks, c -> {
+            int from = ParallelSupport.chunkStart(n, chunks, c);
+            int to = ParallelSupport.chunkStart(n, chunks, c + 1);
+            int min = array[from];
+            int max = array[from];
+            for (int i = from + 1; i < to; i++) {
+                int v = array[i];
+                if (v < min)
+                    min = v;
+                if (v > max)
+                    max = v;
+            }
+            chunkMin[c] = min;
+            chunkMax[c] = max;
+        });
+        int min = chunkMin[0];
+        int max = chunkMax[0];
+        for (int c = 1; c < chunks; c++) {
+            min = Math.min(min, chunkMin[c]);
+            max = Math.max(max, chunkMax[c]);
+        }
+        shared.phaseCompleted("range", System.nanoTime() - start);
+        if (min == max || shared.isCancelled()) {
+            markAllSorted(array, shared);
+            return;
+        }
+
+        // max - min as an unsigned int covers the whole int range
+        int bits = Integer.SIZE - Integer.numberOfLeadingZeros(max - min);
+        int passes = bits <= COUNTING_SORT_BITS ? 1 : (bits + MAX_DIGIT_BITS - 1) / MAX_DIGIT_BITS;
+        int digitBits = (bits + passes - 1) / passes;
+        int radix = 1 << digitBits;
+        int mask = radix - 1;
+        final int offset = min;
+
+        int[][] counts = new int[chunks][radix];
+        int[] src = array;
+        int[] dst = new int[n];
+        for (int pass = 0; pass < passes; pass++) {
+            final int shift = pass * digitBits;
+            final int[] from = src;
+            final int[] to = dst;
+
+            start = System.nanoTime();
+            ParallelSupport.forEachChunk(pool, chunks, c -> {
+                int lo = ParallelSupport.chunkStart(n, chunks, c);
+                int hi = ParallelSupport.chunkStart(n, chunks, c + 1);
+                shared.workerRange(ParallelSupport.currentLane(), lo, hi - 1);
+                int[] count = counts[c];
+                Arrays.fill(count, 0);
+                for (int i = lo; i < hi; i++) {
+                    count[((from[i] - offset) >>> shift) & mask]++;
+                }
+            });
+            shared.phaseCompleted("histogram", System.nanoTime() - start);
+            if (shared.isCancelled())
+                return;
+
+            // counts[c][b] becomes where chunk c writes its first element of bucket b
+            start = System.nanoTime();
+            int sum = 0;
+            for (int b = 0; b < radix; b++) {
+                for (int c = 0; c < chunks; c++) {
+                    int count = counts[c][b];
+                    counts[c][b] = sum;
+                    sum += count;
+                }
+            }
+            shared.phaseCompleted("prefix", System.nanoTime() - start);
+
+            start = System.nanoTime();
+            ParallelSupport.forEachChunk(pool, chunks, c -> {
+                int lo = ParallelSupport.chunkStart(n, chunks, c);
+                int hi = ParallelSupport.chunkStart(n, chunks, c + 1);
+                shared.workerRange(ParallelSupport.currentLane(), lo, hi - 1);
+                int[] next = counts[c];
+                for (int i = lo; i < hi; i++) {
+                    // Polled per block: through a synchronized wrapper every call takes the lock
+                    if ((i & 1023) == 0 && shared.isCancelled())
+                        return;
+                    int value = from[i];
+                    int pos = next[((value - offset) >>> shift) & mask]++;
+                    to[pos] = value;
+                    shared.setValue(pos, value);
+                }
+            });
+            shared.phaseCompleted("scatter", System.nanoTime() - start);
+            if (shared.isCancelled())
+                return;
+
+            src = to;
+            dst = from;
+        }
+
+        // The panel already shows the final order; this only moves it into the caller's array
+        if (src != array) {
+            start = System.nanoTime();
+            final int[] sorted = src;
+            ParallelSupport.forEachChunk(pool, chunks, c -> {
+                int lo = ParallelSupport.chunkStart(n, chunks, c);
+                int hi = ParallelSupport.chunkStart(n, chunks, c + 1);
+                System.arraycopy(sorted, lo, array, lo, hi - lo);
+            });
+            shared.phaseCompleted("copy", System.nanoTime() - start);
+        }
+        markAllSorted(array, shared);
+    }
+
+    private static void markAllSorted(int[] array, SortController controller) throws InterruptedException {
+        controller.markSorted(0, array.length - 1);
+        controller.clearHighlights();
+    }
+}
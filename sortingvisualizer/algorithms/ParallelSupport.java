@@ -0,0 +1,90 @@
+package sortingvisualizer.algorithms;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Helpers shared by the fork/join based algorithms.
+ */
+final class ParallelSupport {
+    // Below this many elements forking costs more than it saves
+    private static final int MIN_CUTOFF = 16;
+    // Aim for a few tasks per worker so stealing can balance uneven splits
+    private static final int TASKS_PER_WORKER = 4;
+
+    private ParallelSupport() {
+    }
+
+    static int sequentialCutoff(int n, ForkJoinPool pool) {
+        return Math.max(MIN_CUTOFF, n / (pool.getParallelism() * TASKS_PER_WORKER));
+    }
+
+    // Lane used to color the calling worker's range; 0 outside a fork/join pool
+    static int currentLane() {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof ForkJoinWorkerThread) {
+            return ((ForkJoinWorkerThread) thread).getPoolIndex();
+        }
+        return 0;
+    }
+
+    /** Body of a data-parallel phase, run once per chunk index. */
+    interface ChunkAction {
+        void run(int chunk) throws InterruptedException;
+    }
+
+    // Start of chunk c when n elements are split into the given number of nearly equal chunks
+    static int chunkStart(int n, int chunks, int c) {
+        return (int) ((long) n * c / chunks);
+    }
+
+    // Runs action for every chunk index in parallel and waits for all of them
+    static void forEachChunk(ForkJoinPool pool, int chunks, ChunkAction action) throws InterruptedException {
+        invoke(pool, new ChunkTask(action, 0, chunks));
+    }
+
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ChunkAction action;
+        private final int from;
+        private final int to;
+
+        ChunkTask(ChunkAction action, int from, int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                try {
+                    action.run(from);
+                } catch (InterruptedException e) {
+                    throw new CompletionException(e);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(action, from, mid), new ChunkTask(action, mid, to));
+        }
+    }
+
+    // Runs the task and turns an interrupted worker back into an InterruptedException
+    static void invoke(ForkJoinPool pool, ForkJoinTask<?> task) throws InterruptedException {
+        try {
+            pool.invoke(task);
+        } catch (CompletionException e) {
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof InterruptedException) {
+                    throw (InterruptedException) cause;
+                }
+            }
+            throw e;
+        }
+    }
+}
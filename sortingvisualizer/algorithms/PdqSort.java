@@ -0,0 +1,347 @@
+package sortingvisualizer.algorithms;
+
+import sortingvisualizer.AlgorithmInfo;
+import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.IntArray;
+import sortingvisualizer.SortController;
+
+/**
+ * Pattern-defeating quicksort, after Orson Peters' pdqsort.
+ *
+ * Pivots are the median of three, or Tukey's ninther above
+ * {@link #NINTHER_THRESHOLD} elements, and small ranges finish with
+ * insertion sort. A partition that needed no swaps is taken as a hint that
+ * the range is already (nearly) sorted and is finished with a bounded
+ * insertion sort. Runs of keys equal to an earlier pivot are split off in
+ * one pass, highly unbalanced partitions shuffle a few elements to break
+ * adversarial patterns, and after log2(n) of those the range falls back to
+ * heapsort, so the worst case is O(n log n). The smaller side is recursed
+ * into and the larger one looped on, so stack depth stays O(log n).
+ *
+ * Ranges are half-open, [begin, end), as in the original. It works directly
+ * on an {@link IntArray}, so off-heap storage and arrays longer than 2^31
+ * elements sort in place; steps are reported only while indices fit in an
+ * int.
+ */
+public class PdqSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(false, true, false, "O(n log n)", "O(log n)");
+
+    private static final int INSERTION_SORT_THRESHOLD = 24;
+    private static final int NINTHER_THRESHOLD = 128;
+    private static final int PARTIAL_INSERTION_SORT_LIMIT = 8;
+
+    private IntArray arr;
+    private SortController controller;
+    private boolean reporting;
+
+    @Override
+    public String getName() {
+        return "PDQ Sort";
+    }
+
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
+    @Override
+    public void runSort(int[] array, SortController controller) throws InterruptedException {
+        runSort(IntArray.wrap(array), controller);
+    }
+
+    @Override
+    public void runSort(IntArray array, SortController controller) throws InterruptedException {
+        this.arr = array;
+        this.controller = controller;
+        long n = array.length();
+        this.reporting = n <= Integer.MAX_VALUE;
+        if (n > 0) {
+            pdqSort(0, n, log2(n), true);
+        }
+        controller.clearHighlights();
+    }
+
+    private static int log2(long n) {
+        return 63 - Long.numberOfLeadingZeros(n);
+    }
+
+    private void pdqSort(long begin, long end, int badAllowed, boolean leftmost) throws InterruptedException {
+        while (true) {
+            if (controller.isCancelled())
+                return;
+            long size = end - begin;
+            if (size < INSERTION_SORT_THRESHOLD) {
+                insertionSort(begin, end);
+                return;
+            }
+            if (reporting) {
+                controller.subArray((int) begin, (int) end - 1);
+            }
+
+            // Leaves the chosen pivot at begin
+            long half = size / 2;
+            if (size > NINTHER_THRESHOLD) {
+                sort3(begin, begin + half, end - 1);
+                sort3(begin + 1, begin + half - 1, end - 2);
+                sort3(begin + 2, begin + half + 1, end - 3);
+                sort3(begin + half - 1, begin + half, begin + half + 1);
+                swap(begin, begin + half);
+            } else {
+                sort3(begin + half, begin, end - 1);
+            }
+            if (reporting) {
+                controller.pivot((int) begin);
+            }
+
+            // The predecessor is a previous pivot; if it equals this one, every
+            // key equal to it belongs here and can be split off in one pass
+            if (!leftmost && !less(begin - 1, begin)) {
+                long pivotPos = partitionLeft(begin, end);
+                markSorted(begin, pivotPos + 1);
+                begin = pivotPos + 1;
+                continue;
+            }
+
+            long result = partitionRight(begin, end);
+            if (result < 0)
+                return;
+            long pivotPos = result >>> 1;
+            boolean alreadyPartitioned = (result & 1) != 0;
+            markSorted(pivotPos, pivotPos + 1);
+
+            long leftSize = pivotPos - begin;
+            long rightSize = end - (pivotPos + 1);
+            if (leftSize < size / 8 || rightSize < size / 8) {
+                if (--badAllowed == 0) {
+                    heapSort(begin, end);
+                    return;
+                }
+                breakPatterns(begin, pivotPos, leftSize);
+                breakPatterns(pivotPos + 1, end, rightSize);
+            } else if (alreadyPartitioned
+                    && partialInsertionSort(begin, pivotPos)
+                    && partialInsertionSort(pivotPos + 1, end)) {
+                markSorted(begin, end);
+                return;
+            }
+
+            if (leftSize < rightSize) {
+                pdqSort(begin, pivotPos, badAllowed, leftmost);
+                begin = pivotPos + 1;
+                leftmost = false;
+            } else {
+                pdqSort(pivotPos + 1, end, badAllowed, false);
+                end = pivotPos;
+            }
+        }
+    }
+
+    // Swaps a few elements at fixed offsets so the next pivot choice sees a different sample
+    private void breakPatterns(long begin, long end, long size) throws InterruptedException {
+        if (size < INSERTION_SORT_THRESHOLD)
+            return;
+        long quarter = size / 4;
+        swap(begin, begin + quarter);
+        swap(end - 1, end - quarter);
+        if (size > NINTHER_THRESHOLD) {
+            swap(begin + 1, begin + quarter + 1);
+            swap(begin + 2, begin + quarter + 2);
+            swap(end - 2, end - quarter - 1);
+            swap(end - 3, end - quarter - 2);
+        }
+    }
+
+    /**
+     * Partitions around arr[begin] into [&lt; pivot] pivot [&gt;= pivot].
+     * Returns the pivot's final index shifted left by one, with the low bit
+     * set if no element had to move, or -1 if the sort was cancelled.
+     */
+    private long partitionRight(long begin, long end) throws InterruptedException {
+        long first = begin;
+        long last = end;
+
+        // The median selection guarantees an element >= pivot at the end
+        while (less(++first, begin))
+            ;
+        if (first - 1 == begin) {
+            while (first < last && !less(--last, begin))
+                ;
+        } else {
+            // An element < pivot exists before first, so this stops in range
+            while (!less(--last, begin))
+                ;
+        }
+
+        boolean alreadyPartitioned = first >= last;
+        while (first < last) {
+            if (controller.isCancelled())
+                return -1;
+            swap(first, last);
+            while (less(++first, begin))
+                ;
+            while (!less(--last, begin))
+                ;
+        }
+
+        long pivotPos = first - 1;
+        swap(begin, pivotPos);
+        return (pivotPos << 1) | (alreadyPartitioned ? 1 : 0);
+    }
+
+    // Partitions into [<= pivot] [> pivot]; used when the range holds many copies of the pivot
+    private long partitionLeft(long begin, long end) throws InterruptedException {
+        long first = begin;
+        long last = end;
+
+        while (less(begin, --last))
+            ;
+        if (last + 1 == end) {
+            while (first < last && !less(begin, ++first))
+                ;
+        } else {
+            while (!less(begin, ++first))
+                ;
+        }
+
+        while (first < last) {
+            if (controller.isCancelled())
+                return last;
+            swap(first, last);
+            while (less(begin, --last))
+                ;
+            while (!less(begin, ++first))
+                ;
+        }
+
+        swap(begin, last);
+        return last;
+    }
+
+    private void insertionSort(long begin, long end) throws InterruptedException {
+        for (long i = begin + 1; i < end; i++) {
+            if (controller.isCancelled())
+                return;
+            if (less(i, i - 1)) {
+                shiftDown(begin, i);
+            }
+        }
+        markSorted(begin, end);
+    }
+
+    /**
+     * Insertion sort that gives up once more than
+     * {@link #PARTIAL_INSERTION_SORT_LIMIT} elements have been moved. Returns
+     * whether the range ended up sorted.
+     */
+    private boolean partialInsertionSort(long begin, long end) throws InterruptedException {
+        long moved = 0;
+        for (long i = begin + 1; i < end; i++) {
+            if (controller.isCancelled())
+                return false;
+            if (less(i, i - 1)) {
+                moved += i - shiftDown(begin, i);
+                if (moved > PARTIAL_INSERTION_SORT_LIMIT)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    // Moves arr[i] left into place within [begin, i], given arr[i] < arr[i - 1]; returns its new index
+    private long shiftDown(long begin, long i) throws InterruptedException {
+        int key = arr.get(i);
+        long j = i;
+        do {
+            set(j, arr.get(j - 1));
+            j--;
+            if (j == begin)
+                break;
+            if (reporting) {
+                controller.compare((int) j - 1, (int) i);
+            } else {
+                controller.addComparison();
+            }
+        } while (key < arr.get(j - 1));
+        set(j, key);
+        return j;
+    }
+
+    // Heapsort on [begin, end), the worst-case fallback
+    private void heapSort(long begin, long end) throws InterruptedException {
+        long n = end - begin;
+        for (long i = n / 2 - 1; i >= 0; i--) {
+            if (controller.isCancelled())
+                return;
+            siftDown(begin, i, n);
+        }
+        for (long i = n - 1; i > 0; i--) {
+            if (controller.isCancelled())
+                return;
+            swap(begin, begin + i);
+            markSorted(begin + i, begin + i + 1);
+            siftDown(begin, 0, i);
+        }
+        markSorted(begin, begin + 1);
+    }
+
+    private void siftDown(long base, long root, long n) throws InterruptedException {
+        while (true) {
+            long child = 2 * root + 1;
+            if (child >= n)
+                return;
+            if (child + 1 < n && less(base + child, base + child + 1)) {
+                child++;
+            }
+            if (!less(base + root, base + child))
+                return;
+            swap(base + root, base + child);
+            root = child;
+        }
+    }
+
+    private void sort2(long a, long b) throws InterruptedException {
+        if (less(b, a)) {
+            swap(a, b);
+        }
+    }
+
+    // Sorts arr[a] <= arr[b] <= arr[c]
+    private void sort3(long a, long b, long c) throws InterruptedException {
+        sort2(a, b);
+        sort2(b, c);
+        sort2(a, b);
+    }
+
+    private boolean less(long i, long j) throws InterruptedException {
+        if (reporting) {
+            controller.compare((int) i, (int) j);
+        } else {
+            controller.addComparison();
+        }
+        return arr.get(i) < arr.get(j);
+    }
+
+    private void swap(long i, long j) throws InterruptedException {
+        if (i == j)
+            return;
+        arr.swap(i, j);
+        if (reporting) {
+            controller.swap((int) i, (int) j);
+        } else {
+            controller.addSwap();
+        }
+    }
+
+    private void set(long index, int value) throws InterruptedException {
+        arr.set(index, value);
+        if (reporting) {
+            controller.setValue((int) index, value);
+        }
+    }
+
+    private void markSorted(long begin, long end) throws InterruptedException {
+        if (reporting && begin < end) {
+            controller.markSorted((int) begin, (int) end - 1);
+        }
+    }
+}
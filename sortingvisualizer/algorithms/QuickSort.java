@@ -1,15 +1,22 @@
 package sortingvisualizer.algorithms;
 
+import sortingvisualizer.AlgorithmInfo;
 import sortingvisualizer.ISortingAlgorithm;
 import sortingvisualizer.SortController;
 
 public class QuickSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(false, true, false, "O(n log n)", "O(n^2)", "O(log n)");
 
     @Override
     public String getName() {
         return "Quick Sort";
     }
 
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
     @Override
     public void runSort(int[] array, SortController controller) throws InterruptedException {
         quickSortRecursive(array, 0, array.length - 1, controller);
@@ -1,16 +1,23 @@
 package sortingvisualizer.algorithms;
 
+import sortingvisualizer.AlgorithmInfo;
 import sortingvisualizer.ISortingAlgorithm;
 import sortingvisualizer.SortController;
 import java.util.Arrays;
 
 public class RadixSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(true, false, false, "O(d*n)", "O(n)");
 
     @Override
     public String getName() {
         return "Radix Sort";
     }
 
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
     @Override
     public void runSort(int[] array, SortController controller) throws InterruptedException {
         if (array.length == 0)
@@ -29,8 +36,8 @@ public class RadixSort implements ISortingAlgorithm {
             controller.clearHighlights();
         }
         // Final marking as sorted
-        for (int i = 0; i < array.length; i++) {
-            controller.markSorted(i);
+        if (array.length > 0) {
+            controller.markSorted(0, array.length - 1);
         }
         controller.clearHighlights();
     }
@@ -0,0 +1,123 @@
+package sortingvisualizer.algorithms;
+
+import sortingvisualizer.AlgorithmInfo;
+import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.SortController;
+import sortingvisualizer.SortKernels;
+import sortingvisualizer.SortingNetwork;
+
+/**
+ * Quicksort over bulk {@link SortKernels}, for comparing the Vector API
+ * kernels with their scalar fallback.
+ *
+ * Ranges longer than {@link #LEAF_SIZE} are split with the partition kernel
+ * around a median-of-three pivot. Leaves are cut into blocks of 64 that
+ * {@link SortingNetwork#sortBatch} sorts side by side, and the blocks are
+ * merged pairwise with the merge kernel, ping-ponging through one scratch
+ * array. If partitioning goes deeper than twice log2(n), the range is sorted
+ * like a leaf, so the worst case stays O(n log n).
+ *
+ * The kernels compare whole vectors at once, so no comparisons or swaps are
+ * reported. Each partition and finished leaf writes its range back through
+ * setValue, and leaves are marked sorted.
+ */
+public class SimdSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(false, false, false, "O(n log n)", "O(n)");
+
+    // Ranges up to this size are sorted by networks and merges instead of partitioned
+    private static final int LEAF_SIZE = 1024;
+    private static final int BLOCK = SortingNetwork.MAX_SIZE;
+
+    @Override
+    public String getName() {
+        return "SIMD Sort";
+    }
+
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
+    @Override
+    public void runSort(int[] array, SortController controller) throws InterruptedException {
+        int n = array.length;
+        SortKernels kernels = SortKernels.get();
+        int[] scratch = new int[n];
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(Math.max(n, 1)));
+        sort(array, 0, n, depthLimit, kernels, scratch, controller);
+        controller.clearHighlights();
+    }
+
+    private static void sort(int[] array, int lo, int hi, int depth, SortKernels kernels, int[] scratch,
+            SortController controller) throws InterruptedException {
+        while (hi - lo > LEAF_SIZE) {
+            if (controller.isCancelled())
+                return;
+            if (depth-- == 0)
+                break;
+            controller.subArray(lo, hi - 1);
+            int pivot = medianOfThree(array[lo], array[(lo + hi) >>> 1], array[hi - 1]);
+            int split = kernels.partition(array, lo, hi, pivot, scratch);
+            if (split == lo) {
+                // Nothing is smaller, so the pivot is the minimum: its copies are already in place
+                split = pivot == Integer.MAX_VALUE ? hi : kernels.partition(array, lo, hi, pivot + 1, scratch);
+                report(array, lo, hi, controller);
+                controller.markSorted(lo, split - 1);
+                lo = split;
+                continue;
+            }
+            report(array, lo, hi, controller);
+            // Recurse into the smaller side so the stack stays O(log n)
+            if (split - lo < hi - split) {
+                sort(array, lo, split, depth, kernels, scratch, controller);
+                lo = split;
+            } else {
+                sort(array, split, hi, depth, kernels, scratch, controller);
+                hi = split;
+            }
+        }
+        if (!controller.isCancelled()) {
+            sortLeaf(array, lo, hi, kernels, scratch);
+            report(array, lo, hi, controller);
+            controller.markSorted(lo, hi - 1);
+        }
+    }
+
+    // Blocks of 64 through the network, then bottom-up merge passes
+    private static void sortLeaf(int[] array, int lo, int hi, SortKernels kernels, int[] scratch) {
+        int length = hi - lo;
+        int blocks = length / BLOCK;
+        SortingNetwork.forSize(BLOCK).sortBatch(array, lo, blocks);
+        int rest = length - blocks * BLOCK;
+        SortingNetwork.forSize(rest).sort(array, lo + blocks * BLOCK);
+
+        int[] src = array, dst = scratch;
+        for (int width = BLOCK; width < length; width *= 2) {
+            for (int start = lo; start < hi; start += 2 * width) {
+                int mid = Math.min(start + width, hi);
+                int end = Math.min(start + 2 * width, hi);
+                if (mid == end) {
+                    System.arraycopy(src, start, dst, start, end - start);
+                } else {
+                    kernels.merge(src, start, mid, end, dst);
+                }
+            }
+            int[] t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != array) {
+            System.arraycopy(src, lo, array, lo, length);
+        }
+    }
+
+    private static int medianOfThree(int a, int b, int c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static void report(int[] array, int lo, int hi, SortController controller) throws InterruptedException {
+        for (int i = lo; i < hi; i++) {
+            controller.setValue(i, array[i]);
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package sortingvisualizer.algorithms;
+
+import sortingvisualizer.AlgorithmInfo;
+import sortingvisualizer.ISortingAlgorithm;
+import sortingvisualizer.SortController;
+
+/**
+ * Natural merge sort in the style of Tim Peters' TimSort, as in
+ * java.util.TimSort, specialised to int.
+ *
+ * The input is scanned for ascending and strictly descending runs (the
+ * latter are reversed in place); runs shorter than minrun are extended with
+ * binary insertion sort. Runs are kept on a stack whose lengths satisfy the
+ * TimSort invariants, so merges stay balanced. Each merge first gallops to
+ * skip the parts of both runs that are already in place, then copies only
+ * the shorter remainder into the scratch buffer and switches to galloping
+ * whenever one run keeps winning. Already sorted or reversed input therefore
+ * costs n - 1 comparisons, and the only allocation is one scratch buffer of
+ * n / 2 elements made before the first merge.
+ *
+ * Elements in the scratch buffer are reported to the controller at the index
+ * they were copied from.
+ */
+public class TimSort implements ISortingAlgorithm {
+    private static final AlgorithmInfo INFO = new AlgorithmInfo(true, false, false, "O(n log n)", "O(n)");
+
+    // Arrays shorter than this are sorted with binary insertion sort alone
+    private static final int MIN_MERGE = 32;
+    private static final int MIN_GALLOP = 7;
+    // Enough pending runs for any int-sized array given the stack invariants
+    private static final int MAX_RUNS = 49;
+
+    private int[] arr;
+    private SortController controller;
+    private int[] tmp = new int[0];
+    private int minGallop;
+
+    private final int[] runBase = new int[MAX_RUNS];
+    private final int[] runLen = new int[MAX_RUNS];
+    private int stackSize;
+
+    @Override
+    public String getName() {
+        return "Tim Sort";
+    }
+
+    @Override
+    public AlgorithmInfo getInfo() {
+        return INFO;
+    }
+
+    @Override
+    public void runSort(int[] array, SortController controller) throws InterruptedException {
+        this.arr = array;
+        this.controller = controller;
+        this.minGallop = MIN_GALLOP;
+        this.stackSize = 0;
+        if (array.length > 1) {
+            sort(0, array.length);
+        }
+        if (controller.isCancelled())
+            return;
+        if (array.length > 0) {
+            controller.markSorted(0, array.length - 1);
+        }
+        controller.clearHighlights();
+    }
+
+    private void sort(int lo, int hi) throws InterruptedException {
+        int remaining = hi - lo;
+        if (remaining < MIN_MERGE) {
+            int initialRunLength = countRunAndMakeAscending(lo, hi);
+            binarySort(lo, hi, lo + initialRunLength);
+            return;
+        }
+
+        // The shorter side of a merge never exceeds half the array
+        if (tmp.length < remaining / 2) {
+            tmp = new int[remaining / 2];
+        }
+        int minRun = minRunLength(remaining);
+        do {
+            if (controller.isCancelled())
+                return;
+            int runLength = countRunAndMakeAscending(lo, hi);
+            if (runLength < minRun) {
+                int force = Math.min(remaining, minRun);
+                binarySort(lo, lo + force, lo + runLength);
+                runLength = force;
+            }
+            pushRun(lo, runLength);
+            mergeCollapse();
+            lo += runLength;
+            remaining -= runLength;
+        } while (remaining != 0);
+        mergeForceCollapse();
+    }
+
+    /**
+     * Returns k such that n / k is a power of two or just below one, with
+     * MIN_MERGE / 2 &lt;= k &lt;= MIN_MERGE.
+     */
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= n & 1;
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    // Length of the run starting at lo; a strictly descending run is reversed first
+    private int countRunAndMakeAscending(int lo, int hi) throws InterruptedException {
+        int runHi = lo + 1;
+        if (runHi == hi)
+            return 1;
+        controller.subArray(lo, hi - 1);
+        if (less(runHi++, lo)) {
+            while (runHi < hi && less(runHi, runHi - 1))
+                runHi++;
+            reverseRange(lo, runHi);
+        } else {
+            while (runHi < hi && !less(runHi, runHi - 1))
+                runHi++;
+        }
+        return runHi - lo;
+    }
+
+    private void reverseRange(int lo, int hi) throws InterruptedException {
+        hi--;
+        while (lo < hi) {
+            int t = arr[lo];
+            arr[lo] = arr[hi];
+            arr[hi] = t;
+            controller.swap(lo++, hi--);
+        }
+    }
+
+    // Sorts [lo, hi) by binary insertion, given that [lo, start) is already sorted
+    private void binarySort(int lo, int hi, int start) throws InterruptedException {
+        if (start == lo)
+            start++;
+        for (; start < hi; start++) {
+            if (controller.isCancelled())
+                return;
+            int pivot = arr[start];
+            int left = lo;
+            int right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (less(start, mid)) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            for (int k = start; k > left; k--) {
+                set(k, arr[k - 1]);
+            }
+            set(left, pivot);
+        }
+    }
+
+    private void pushRun(int base, int length) {
+        runBase[stackSize] = base;
+        runLen[stackSize] = length;
+        stackSize++;
+    }
+
+    /**
+     * Merges runs until the stack invariants hold again:
+     * runLen[i - 3] &gt; runLen[i - 2] + runLen[i - 1] and
+     * runLen[i - 2] &gt; runLen[i - 1], checked four deep as in the
+     * corrected JDK version.
+     */
+    private void mergeCollapse() throws InterruptedException {
+        while (stackSize > 1 && !controller.isCancelled()) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                    || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                if (runLen[n - 1] < runLen[n + 1])
+                    n--;
+            } else if (runLen[n] > runLen[n + 1]) {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    private void mergeForceCollapse() throws InterruptedException {
+        while (stackSize > 1 && !controller.isCancelled()) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] < runLen[n + 1])
+                n--;
+            mergeAt(n);
+        }
+    }
+
+    // Merges the runs at stack positions i and i + 1
+    private void mergeAt(int i) throws InterruptedException {
+        int base1 = runBase[i];
+        int len1 = runLen[i];
+        int base2 = runBase[i + 1];
+        int len2 = runLen[i + 1];
+
+        runLen[i] = len1 + len2;
+        if (i == stackSize - 3) {
+            runBase[i + 1] = runBase[i + 2];
+            runLen[i + 1] = runLen[i + 2];
+        }
+        stackSize--;
+        controller.subArray(base1, base2 + len2 - 1);
+
+        // Elements of run 1 below run 2's first element are already in place
+        int k = gallopRight(arr[base2], base2, arr, base1, len1, 0, base1);
+        base1 += k;
+        len1 -= k;
+        if (len1 == 0)
+            return;
+
+        // Likewise elements of run 2 above run 1's last element
+        len2 = gallopLeft(arr[base1 + len1 - 1], base1 + len1 - 1, arr, base2, len2, len2 - 1, base2);
+        if (len2 == 0)
+            return;
+
+        if (len1 <= len2) {
+            mergeLo(base1, len1, base2, len2);
+        } else {
+            mergeHi(base1, len1, base2, len2);
+        }
+    }
+
+    /**
+     * Index in a[base, base + len) where key would be inserted before any
+     * equal elements, searching outwards from hint. Comparisons are reported
+     * at keyAt and at display + offset.
+     */
+    private int gallopLeft(int key, int keyAt, int[] a, int base, int len, int hint, int display)
+            throws InterruptedException {
+        int lastOfs = 0;
+        int ofs = 1;
+        if (lt(a[base + hint], display + hint, key, keyAt)) {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && lt(a[base + hint + ofs], display + hint + ofs, key, keyAt)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0)
+                    ofs = maxOfs;
+            }
+            if (ofs > maxOfs)
+                ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        } else {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && !lt(a[base + hint - ofs], display + hint - ofs, key, keyAt)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0)
+                    ofs = maxOfs;
+            }
+            if (ofs > maxOfs)
+                ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (lt(a[base + m], display + m, key, keyAt)) {
+                lastOfs = m + 1;
+            } else {
+                ofs = m;
+            }
+        }
+        return ofs;
+    }
+
+    // Like gallopLeft, but returns the index after any elements equal to key
+    private int gallopRight(int key, int keyAt, int[] a, int base, int len, int hint, int display)
+            throws InterruptedException {
+        int ofs = 1;
+        int lastOfs = 0;
+        if (lt(key, keyAt, a[base + hint], display + hint)) {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && lt(key, keyAt, a[base + hint - ofs], display + hint - ofs)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0)
+                    ofs = maxOfs;
+            }
+            if (ofs > maxOfs)
+                ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        } else {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && !lt(key, keyAt, a[base + hint + ofs], display + hint + ofs)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0)
+                    ofs = maxOfs;
+            }
+            if (ofs > maxOfs)
+                ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (lt(key, keyAt, a[base + m], display + m)) {
+                ofs = m;
+            } else {
+                lastOfs = m + 1;
+            }
+        }
+        return ofs;
+    }
+
+    /**
+     * Merges two adjacent runs left to right with run 1 in the scratch
+     * buffer; used when run 1 is the shorter. arr[base1] must be greater
+     * than arr[base2] and the last element of run 1 greater than every
+     * element of run 2.
+     */
+    private void mergeLo(int base1, int len1, int base2, int len2) throws InterruptedException {
+        System.arraycopy(arr, base1, tmp, 0, len1);
+        int cursor1 = 0;
+        int cursor2 = base2;
+        int dest = base1;
+
+        set(dest++, arr[cursor2++]);
+        if (--len2 == 0) {
+            copyIn(tmp, cursor1, dest, len1);
+            return;
+        }
+        if (len1 == 1) {
+            copyIn(arr, cursor2, dest, len2);
+            set(dest + len2, tmp[cursor1]);
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            if (controller.isCancelled())
+                return;
+            int count1 = 0;
+            int count2 = 0;
+
+            // One pair at a time until one run wins minGallop times in a row
+            do {
+                if (lt(arr[cursor2], cursor2, tmp[cursor1], base1 + cursor1)) {
+                    set(dest++, arr[cursor2++]);
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 0)
+                        break outer;
+                } else {
+                    set(dest++, tmp[cursor1++]);
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 1)
+                        break outer;
+                }
+            } while ((count1 | count2) < minGallop);
+
+            // Gallop while it keeps paying off
+            do {
+                count1 = gallopRight(arr[cursor2], cursor2, tmp, cursor1, len1, 0, base1 + cursor1);
+                if (count1 != 0) {
+                    copyIn(tmp, cursor1, dest, count1);
+                    dest += count1;
+                    cursor1 += count1;
+                    len1 -= count1;
+                    if (len1 <= 1)
+                        break outer;
+                }
+                set(dest++, arr[cursor2++]);
+                if (--len2 == 0)
+                    break outer;
+
+                count2 = gallopLeft(tmp[cursor1], base1 + cursor1, arr, cursor2, len2, 0, cursor2);
+                if (count2 != 0) {
+                    copyIn(arr, cursor2, dest, count2);
+                    dest += count2;
+                    cursor2 += count2;
+                    len2 -= count2;
+                    if (len2 == 0)
+                        break outer;
+                }
+                set(dest++, tmp[cursor1++]);
+                if (--len1 == 1)
+                    break outer;
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0)
+                minGallop = 0;
+            minGallop += 2; // Penalize leaving galloping mode
+        }
+        this.minGallop = Math.max(1, minGallop);
+
+        if (len1 == 1) {
+            copyIn(arr, cursor2, dest, len2);
+            set(dest + len2, tmp[cursor1]);
+        } else {
+            copyIn(tmp, cursor1, dest, len1);
+        }
+    }
+
+    /**
+     * Mirror image of {@link #mergeLo}: merges right to left with run 2 in
+     * the scratch buffer; used when run 2 is the shorter.
+     */
+    private void mergeHi(int base1, int len1, int base2, int len2) throws InterruptedException {
+        System.arraycopy(arr, base2, tmp, 0, len2);
+        int cursor1 = base1 + len1 - 1;
+        int cursor2 = len2 - 1;
+        int dest = base2 + len2 - 1;
+
+        set(dest--, arr[cursor1--]);
+        if (--len1 == 0) {
+            copyIn(tmp, 0, dest - (len2 - 1), len2);
+            return;
+        }
+        if (len2 == 1) {
+            dest -= len1;
+            cursor1 -= len1;
+            copyIn(arr, cursor1 + 1, dest + 1, len1);
+            set(dest, tmp[cursor2]);
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            if (controller.isCancelled())
+                return;
+            int count1 = 0;
+            int count2 = 0;
+
+            do {
+                if (lt(tmp[cursor2], base2 + cursor2, arr[cursor1], cursor1)) {
+                    set(dest--, arr[cursor1--]);
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 0)
+                        break outer;
+                } else {
+                    set(dest--, tmp[cursor2--]);
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 1)
+                        break outer;
+                }
+            } while ((count1 | count2) < minGallop);
+
+            do {
+                count1 = len1 - gallopRight(tmp[cursor2], base2 + cursor2, arr, base1, len1, len1 - 1, base1);
+                if (count1 != 0) {
+                    dest -= count1;
+                    cursor1 -= count1;
+                    len1 -= count1;
+                    copyIn(arr, cursor1 + 1, dest + 1, count1);
+                    if (len1 == 0)
+                        break outer;
+                }
+                set(dest--, tmp[cursor2--]);
+                if (--len2 == 1)
+                    break outer;
+
+                count2 = len2 - gallopLeft(arr[cursor1], cursor1, tmp, 0, len2, len2 - 1, base2);
+                if (count2 != 0) {
+                    dest -= count2;
+                    cursor2 -= count2;
+                    len2 -= count2;
+                    copyIn(tmp, cursor2 + 1, dest + 1, count2);
+                    if (len2 <= 1)
+                        break outer;
+                }
+                set(dest--, arr[cursor1--]);
+                if (--len1 == 0)
+                    break outer;
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0)
+                minGallop = 0;
+            minGallop += 2;
+        }
+        this.minGallop = Math.max(1, minGallop);
+
+        if (len2 == 1) {
+            dest -= len1;
+            cursor1 -= len1;
+            copyIn(arr, cursor1 + 1, dest + 1, len1);
+            set(dest, tmp[cursor2]);
+        } else {
+            copyIn(tmp, 0, dest - (len2 - 1), len2);
+        }
+    }
+
+    // Copies a block into arr (overlap-safe) and reports every written slot
+    private void copyIn(int[] src, int srcPos, int destPos, int length) throws InterruptedException {
+        System.arraycopy(src, srcPos, arr, destPos, length);
+        for (int i = destPos; i < destPos + length; i++) {
+            controller.setValue(i, arr[i]);
+        }
+    }
+
+    private void set(int index, int value) throws InterruptedException {
+        arr[index] = value;
+        controller.setValue(index, value);
+    }
+
+    private boolean less(int i, int j) throws InterruptedException {
+        controller.compare(i, j);
+        return arr[i] < arr[j];
+    }
+
+    // x < y for values that may live in the scratch buffer, reported at their source indices
+    private boolean lt(int x, int xAt, int y, int yAt) throws InterruptedException {
+        controller.compare(xAt, yAt);
+        return x < y;
+    }
+}
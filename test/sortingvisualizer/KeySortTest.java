@@ -0,0 +1,125 @@
+package sortingvisualizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Runs every registered algorithm through the {@link KeySort} overloads and
+ * checks the results against Arrays.sort, records for stability too. The
+ * shapes cover narrow keys, full-width longs, doubles with signed zeros,
+ * NaN and infinities, and keys that only differ in their top bits, so each
+ * of the one-, two- and three-run paths is taken. Run by gradle check.
+ */
+public class KeySortTest {
+    private static final int SIZE = 2000;
+    private static final String[] SHAPES = { "narrow", "wide", "special", "top bits" };
+
+    private static final class Record {
+        final long key;
+        final double value;
+
+        Record(long key, double value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        List<String> failures = new ArrayList<>();
+        for (AlgorithmRegistry.Entry algorithm : AlgorithmRegistry.getDefault().getAlgorithms()) {
+            for (int shape = 0; shape < SHAPES.length; shape++) {
+                Random random = new Random(shape);
+                for (int n : new int[] { 0, 1, 2, 17, SIZE }) {
+                    String name = algorithm.getId() + " " + SHAPES[shape] + " n=" + n + ": ";
+                    try {
+                        check(algorithm, random, shape, n, name, failures);
+                    } catch (RuntimeException | OutOfMemoryError e) {
+                        failures.add(name + e);
+                    }
+                }
+            }
+        }
+        for (String failure : failures) {
+            System.err.println(failure);
+        }
+        if (!failures.isEmpty())
+            throw new AssertionError(failures.size() + " KeySort checks failed");
+        System.out.println("KeySort: " + AlgorithmRegistry.getDefault().getAlgorithms().size()
+                + " algorithms passed");
+    }
+
+    private static void check(AlgorithmRegistry.Entry algorithm, Random random, int shape, int n, String name,
+            List<String> failures) throws InterruptedException {
+        long[] longs = new long[n];
+        double[] doubles = new double[n];
+        float[] floats = new float[n];
+        Record[] records = new Record[n];
+        double[] specials = { -0.0, 0.0, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.MIN_VALUE, -Double.MAX_VALUE, 1.0 };
+        for (int i = 0; i < n; i++) {
+            switch (shape) {
+                case 0:
+                    longs[i] = random.nextInt(100) - 50;
+                    doubles[i] = random.nextInt(10) / 4.0;
+                    break;
+                case 1:
+                    longs[i] = random.nextLong();
+                    doubles[i] = random.nextGaussian() * Math.pow(10, random.nextInt(600) - 300);
+                    break;
+                case 2:
+                    longs[i] = random.nextBoolean() ? Long.MIN_VALUE : Long.MAX_VALUE;
+                    doubles[i] = specials[random.nextInt(specials.length)];
+                    break;
+                default:
+                    longs[i] = (long) random.nextInt(8) << 61;
+                    doubles[i] = random.nextDouble();
+                    break;
+            }
+            floats[i] = (float) doubles[i];
+            records[i] = new Record(longs[i], doubles[i]);
+        }
+
+        long[] expectedLongs = longs.clone();
+        Arrays.sort(expectedLongs);
+        KeySort.sort(longs, algorithm.newInstance(), new HeadlessController());
+        if (!Arrays.equals(longs, expectedLongs))
+            failures.add(name + "long[] out of order");
+
+        double[] expectedDoubles = doubles.clone();
+        Arrays.sort(expectedDoubles);
+        KeySort.sort(doubles, algorithm.newInstance(), new HeadlessController());
+        if (!Arrays.equals(doubles, expectedDoubles))
+            failures.add(name + "double[] out of order");
+
+        float[] expectedFloats = floats.clone();
+        Arrays.sort(expectedFloats);
+        KeySort.sort(floats, algorithm.newInstance(), new HeadlessController());
+        if (!Arrays.equals(floats, expectedFloats))
+            failures.add(name + "float[] out of order");
+
+        // Arrays.sort on objects is stable, so equal keys must come out in the same order
+        Record[] expected = records.clone();
+        Arrays.sort(expected, Comparator.comparingInt(r -> (int) r.key));
+        Record[] actual = records.clone();
+        KeySort.sortByIntKey(actual, r -> (int) r.key, algorithm.newInstance(), new HeadlessController());
+        if (!Arrays.equals(actual, expected))
+            failures.add(name + "records by int key out of order");
+
+        expected = records.clone();
+        Arrays.sort(expected, Comparator.comparingLong(r -> r.key));
+        actual = records.clone();
+        KeySort.sortByLongKey(actual, r -> r.key, algorithm.newInstance(), new HeadlessController());
+        if (!Arrays.equals(actual, expected))
+            failures.add(name + "records by long key out of order");
+
+        expected = records.clone();
+        Arrays.sort(expected, Comparator.comparingDouble(r -> r.value));
+        actual = records.clone();
+        KeySort.sortByDoubleKey(actual, r -> r.value, algorithm.newInstance(), new HeadlessController());
+        if (!Arrays.equals(actual, expected))
+            failures.add(name + "records by double key out of order");
+    }
+}
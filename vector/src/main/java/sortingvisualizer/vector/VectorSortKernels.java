@@ -0,0 +1,205 @@
+package sortingvisualizer.vector;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import sortingvisualizer.ScalarSortKernels;
+import sortingvisualizer.SortKernels;
+import sortingvisualizer.SortingNetwork;
+
+/**
+ * {@link SortKernels} on the incubating Vector API, found through
+ * {@link java.util.ServiceLoader} when the JVM runs with
+ * {@code --add-modules jdk.incubator.vector}.
+ *
+ * Partition and merge work on 8-lane vectors, which AVX2 and AVX-512 both
+ * run natively. Partition packs the lanes below the pivot to the front with
+ * one of 256 precomputed shuffles and writes the vector to both ends of the
+ * scratch array, as the scalar kernel does one element at a time. Merge
+ * keeps the larger half of the last 16 elements in a register and merges it
+ * with the next 8 from whichever run has the smaller head, using a bitonic
+ * network of min, max and lane permutes. Columns use the widest vectors the
+ * CPU has. Short inputs and tails fall back to {@link ScalarSortKernels}.
+ */
+public final class VectorSortKernels implements SortKernels {
+    private static final VectorSpecies<Integer> EIGHT = IntVector.SPECIES_256;
+    private static final VectorSpecies<Integer> WIDE = IntVector.SPECIES_PREFERRED;
+    private static final int LANES = 8;
+
+    // PACK[m] moves the lanes set in m to the front, in order, and the others behind them
+    private static final VectorShuffle<Integer>[] PACK = packShuffles();
+    // Lane i holds bit i; summing it under a mask gives the mask's bits faster than toLong() on JDK 17
+    private static final IntVector LANE_BITS = IntVector.fromArray(EIGHT, new int[] { 1, 2, 4, 8, 16, 32, 64, 128 }, 0);
+    private static final VectorShuffle<Integer> REVERSE = EIGHT.shuffleFromOp(i -> LANES - 1 - i);
+    // Bitonic cleaner stages: partner lane at distance 4, 2, 1 and the lanes that keep the maximum
+    private static final VectorShuffle<Integer>[] PARTNER = partnerShuffles();
+    private static final VectorMask<Integer>[] UPPER = upperMasks();
+
+    private final ScalarSortKernels scalar = ScalarSortKernels.INSTANCE;
+
+    public VectorSortKernels() {
+        if (WIDE.length() < LANES) {
+            throw new UnsupportedOperationException(
+                    "Only " + WIDE.length() + " int lanes; the scalar kernels are faster");
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static VectorShuffle<Integer>[] packShuffles() {
+        VectorShuffle<Integer>[] shuffles = new VectorShuffle[1 << LANES];
+        int[] order = new int[LANES];
+        for (int mask = 0; mask < shuffles.length; mask++) {
+            int k = 0;
+            for (int lane = 0; lane < LANES; lane++) {
+                if ((mask & (1 << lane)) != 0)
+                    order[k++] = lane;
+            }
+            for (int lane = 0; lane < LANES; lane++) {
+                if ((mask & (1 << lane)) == 0)
+                    order[k++] = lane;
+            }
+            shuffles[mask] = VectorShuffle.fromArray(EIGHT, order, 0);
+        }
+        return shuffles;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static VectorShuffle<Integer>[] partnerShuffles() {
+        VectorShuffle<Integer>[] shuffles = new VectorShuffle[3];
+        for (int s = 0, d = LANES / 2; d > 0; s++, d >>= 1) {
+            int distance = d;
+            shuffles[s] = EIGHT.shuffleFromOp(i -> i ^ distance);
+        }
+        return shuffles;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static VectorMask<Integer>[] upperMasks() {
+        VectorMask<Integer>[] masks = new VectorMask[3];
+        for (int s = 0, d = LANES / 2; d > 0; s++, d >>= 1) {
+            long bits = 0;
+            for (int lane = 0; lane < LANES; lane++) {
+                if ((lane & d) != 0)
+                    bits |= 1L << lane;
+            }
+            masks[s] = VectorMask.fromLong(EIGHT, bits);
+        }
+        return masks;
+    }
+
+    @Override
+    public String getName() {
+        return "Vector API (" + WIDE.vectorBitSize() + "-bit)";
+    }
+
+    /*
+     * A vector is only written while at least 16 slots are free between the
+     * two ends, so neither full-width store can reach the other end's data.
+     */
+    @Override
+    public int partition(int[] array, int from, int to, int pivot, int[] scratch) {
+        int left = 0, right = to - from;
+        int i = from;
+        for (; to - i >= 2 * LANES; i += LANES) {
+            IntVector v = IntVector.fromArray(EIGHT, array, i);
+            VectorMask<Integer> below = v.compare(VectorOperators.LT, pivot);
+            int less = IntVector.zero(EIGHT).blend(LANE_BITS, below).reduceLanes(VectorOperators.ADD);
+            IntVector packed = v.rearrange(PACK[less]);
+            packed.intoArray(scratch, left);
+            packed.intoArray(scratch, right - LANES);
+            int count = Integer.bitCount(less);
+            left += count;
+            right -= LANES - count;
+        }
+        for (; i < to; i++) {
+            int x = array[i];
+            int less = x < pivot ? 1 : 0;
+            scratch[left] = x;
+            scratch[right - 1] = x;
+            left += less;
+            right -= 1 - less;
+        }
+        System.arraycopy(scratch, 0, array, from, to - from);
+        return from + left;
+    }
+
+    @Override
+    public void merge(int[] src, int lo, int mid, int hi, int[] dst) {
+        if (mid - lo < LANES || hi - mid < LANES) {
+            scalar.merge(src, lo, mid, hi, dst);
+            return;
+        }
+        IntVector carry = IntVector.fromArray(EIGHT, src, lo);
+        IntVector next = IntVector.fromArray(EIGHT, src, mid);
+        int i = lo + LANES, j = mid + LANES, k = lo;
+        while (true) {
+            // The lower 8 of carry and next are the next output; the upper 8 carry over
+            IntVector reversed = next.rearrange(REVERSE);
+            IntVector low = sortBitonic(carry.min(reversed));
+            carry = sortBitonic(carry.max(reversed));
+            low.intoArray(dst, k);
+            k += LANES;
+
+            boolean fromLeft = j == hi || (i < mid && src[i] <= src[j]);
+            if (fromLeft ? mid - i < LANES : hi - j < LANES)
+                break;
+            if (fromLeft) {
+                next = IntVector.fromArray(EIGHT, src, i);
+                i += LANES;
+            } else {
+                next = IntVector.fromArray(EIGHT, src, j);
+                j += LANES;
+            }
+        }
+
+        // The run due next has fewer than 8 left: merge them with the carried vector, then with the other run
+        boolean leftShort = j == hi || (i < mid && src[i] <= src[j]);
+        int shortFrom = leftShort ? i : j, shortLength = (leftShort ? mid : hi) - shortFrom;
+        int longFrom = leftShort ? j : i, longTo = leftShort ? hi : mid;
+        int[] runs = new int[2 * LANES];
+        int[] merged = new int[2 * LANES];
+        System.arraycopy(src, shortFrom, runs, LANES - shortLength, shortLength);
+        carry.intoArray(runs, LANES);
+        scalar.merge(runs, LANES - shortLength, LANES, 2 * LANES, merged);
+
+        int a = LANES - shortLength, b = longFrom;
+        while (a < 2 * LANES && b < longTo) {
+            int x = merged[a], y = src[b];
+            int first = x <= y ? 1 : 0;
+            dst[k++] = first != 0 ? x : y;
+            a += first;
+            b += 1 - first;
+        }
+        System.arraycopy(merged, a, dst, k, 2 * LANES - a);
+        System.arraycopy(src, b, dst, k + 2 * LANES - a, longTo - b);
+    }
+
+    // Sorts a bitonic vector with three compare-exchange stages
+    private static IntVector sortBitonic(IntVector v) {
+        for (int s = 0; s < PARTNER.length; s++) {
+            IntVector partner = v.rearrange(PARTNER[s]);
+            v = v.min(partner).blend(v.max(partner), UPPER[s]);
+        }
+        return v;
+    }
+
+    @Override
+    public void sortColumns(int[] columns, int width, SortingNetwork network) {
+        if (width % WIDE.length() != 0) {
+            scalar.sortColumns(columns, width, network);
+            return;
+        }
+        for (int c = 0; c < network.getComparatorCount(); c++) {
+            int i = network.getLow(c) * width, j = network.getHigh(c) * width;
+            for (int a = 0; a < width; a += WIDE.length()) {
+                IntVector x = IntVector.fromArray(WIDE, columns, i + a);
+                IntVector y = IntVector.fromArray(WIDE, columns, j + a);
+                x.min(y).intoArray(columns, i + a);
+                x.max(y).intoArray(columns, j + a);
+            }
+        }
+    }
+}